@@ -0,0 +1,120 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.breathing.component.DrowningComponent;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.players.LocalPlayer;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.rendering.nui.NUIManager;
+import org.terasology.engine.utilities.Assets;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.nui.UITextureRegion;
+
+/**
+ * Shows the breath of the local character as another bar of the hunger HUD while it is drowning, instead of the
+ * separate breathing bar of the Breathing module.
+ */
+@RegisterSystem(value = RegisterMode.CLIENT, requiresOptional = "Breathing")
+public class BreathClientSystem extends BaseComponentSystem implements HungerClientSystem.Vital {
+    @In
+    private NUIManager nuiManager;
+
+    @In
+    private Time time;
+
+    @In
+    private LocalPlayer localPlayer;
+
+    @In
+    private HungerClientSystem hungerClientSystem;
+
+    private UITextureRegion icon;
+    private UITextureRegion barTexture;
+
+    private boolean drowning;
+    private long startTime;
+    private long endTime;
+
+    @Override
+    public void initialise() {
+        icon = Assets.getTextureRegion("CoreAssets:icons#bubble").orElse(null);
+        barTexture = Assets.getTextureRegion("Hunger:breathBar").orElse(null);
+        hungerClientSystem.addVital(this);
+    }
+
+    /**
+     * Replaces the breathing bar, which the Breathing module adds to the HUD before, with the bar of this vital.
+     */
+    @Override
+    public void postBegin() {
+        nuiManager.getHUD().removeHUDElement("Breathing:Breathing");
+        EntityRef character = localPlayer.getCharacterEntity();
+        refreshDrowning(character != null ? character.getComponent(DrowningComponent.class) : null);
+    }
+
+    @Override
+    public void shutdown() {
+        hungerClientSystem.removeVital(this);
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return drowning;
+    }
+
+    @Override
+    public float getFraction() {
+        if (endTime <= startTime) {
+            return 0;
+        }
+        float remaining = (float) (endTime - time.getGameTimeInMs()) / (endTime - startTime);
+        return Math.max(0, Math.min(1, remaining));
+    }
+
+    @Override
+    public UITextureRegion getIcon() {
+        return icon;
+    }
+
+    @Override
+    public UITextureRegion getBarTexture() {
+        return barTexture;
+    }
+
+    @ReceiveEvent
+    public void onDrowningActivated(OnActivatedComponent event, EntityRef entity, DrowningComponent drowningComp) {
+        if (entity.equals(localPlayer.getCharacterEntity())) {
+            refreshDrowning(drowningComp);
+        }
+    }
+
+    @ReceiveEvent
+    public void onDrowningChanged(OnChangedComponent event, EntityRef entity, DrowningComponent drowningComp) {
+        if (entity.equals(localPlayer.getCharacterEntity())) {
+            refreshDrowning(drowningComp);
+        }
+    }
+
+    @ReceiveEvent(components = DrowningComponent.class)
+    public void onDrowningDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        if (entity.equals(localPlayer.getCharacterEntity())) {
+            drowning = false;
+        }
+    }
+
+    private void refreshDrowning(DrowningComponent drowningComp) {
+        drowning = drowningComp != null;
+        if (drowning) {
+            startTime = drowningComp.startTime;
+            endTime = drowningComp.endTime;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.prefab.PrefabManager;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.hunger.component.FoodComponent;
+import org.terasology.hunger.component.SpoilageComponent;
+import org.terasology.module.inventory.components.InventoryComponent;
+import org.terasology.module.inventory.events.InventorySlotChangedEvent;
+import org.terasology.module.inventory.systems.InventoryUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Knows how filling all food prefabs are and which food the inventories contain, so systems like NPC AI can decide
+ * what to eat without walking through every inventory slot.
+ * <p>
+ * The food of an inventory is indexed the first time it is queried and kept up to date on inventory changes after
+ * that. Items are indexed by their filling reduced by their freshness. As food keeps spoiling after it has been
+ * indexed, the filling of the best item is checked again before it is recommended, and completely spoiled food is
+ * never recommended.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(FoodCatalog.class)
+public class FoodCatalog extends BaseComponentSystem {
+    /**
+     * The number of recommended items whose filling is checked and corrected before an item is recommended anyway.
+     */
+    private static final int MAX_CANDIDATES = 8;
+
+    /**
+     * The difference in filling up to which the indexed filling of an item is still considered valid.
+     */
+    private static final float FILLING_EPSILON = 0.01f;
+
+    @In
+    private PrefabManager prefabManager;
+
+    @In
+    private Time time;
+
+    @In
+    private HungerService hungerService;
+
+    private List<Prefab> foodPrefabs;
+    private final Map<EntityRef, FoodIndex> inventoryIndexes = new HashMap<>();
+    private final Map<EntityRef, EntityRef> itemInventories = new HashMap<>();
+
+    @Override
+    public void shutdown() {
+        foodPrefabs = null;
+        inventoryIndexes.clear();
+        itemInventories.clear();
+    }
+
+    /**
+     * @return All prefabs with a food component, ordered from the least to the most filling.
+     */
+    public List<Prefab> getFoodPrefabs() {
+        if (foodPrefabs == null) {
+            List<Prefab> prefabs = new ArrayList<>(prefabManager.listPrefabs(FoodComponent.class));
+            prefabs.sort(Comparator.comparingDouble(prefab -> getFilling(prefab.getComponent(FoodComponent.class))));
+            foodPrefabs = Collections.unmodifiableList(prefabs);
+        }
+        return foodPrefabs;
+    }
+
+    /**
+     * Discards the ordering of food prefabs, e.g. after prefabs were reloaded or their filling was modified.
+     */
+    public void invalidateFoodPrefabs() {
+        foodPrefabs = null;
+    }
+
+    /**
+     * Finds the food in an entity's inventory which is best to eat in order to reach a given food level: the most
+     * filling food which does not exceed it, or if there is none, the food exceeding it the least.
+     *
+     * @param entity The hungry entity, which has an inventory.
+     * @param targetFood The food level the entity should reach.
+     * @return The best food item, or {@link EntityRef#NULL} if there is no food in the inventory.
+     */
+    public EntityRef getBestFood(EntityRef entity, float targetFood) {
+        FoodIndex index = getIndex(entity);
+        if (index == null) {
+            return EntityRef.NULL;
+        }
+        float missingFood = targetFood - hungerService.getHunger(entity);
+        long gameTime = time.getGameTimeInMs();
+        for (int i = 0; i < MAX_CANDIDATES; i++) {
+            EntityRef item = index.getBest(missingFood);
+            if (item == EntityRef.NULL) {
+                return item;
+            }
+            float filling = getFilling(item, gameTime);
+            if (Math.abs(filling - index.getFilling(item)) <= FILLING_EPSILON) {
+                return item;
+            }
+            // The item spoiled since it was indexed.
+            updateItem(index, item, filling);
+        }
+        return index.getBest(missingFood);
+    }
+
+    @ReceiveEvent(components = InventoryComponent.class)
+    public void onInventorySlotChanged(InventorySlotChangedEvent event, EntityRef inventory) {
+        FoodIndex index = inventoryIndexes.get(inventory);
+        if (index == null) {
+            return;
+        }
+        removeItem(index, inventory, event.getOldItem());
+        addItem(index, inventory, event.getNewItem());
+    }
+
+    @ReceiveEvent
+    public void onFoodChanged(OnChangedComponent event, EntityRef item, FoodComponent food) {
+        reindexItem(item);
+    }
+
+    @ReceiveEvent(components = FoodComponent.class)
+    public void onSpoilageChanged(OnChangedComponent event, EntityRef item, SpoilageComponent spoilage) {
+        reindexItem(item);
+    }
+
+    private void reindexItem(EntityRef item) {
+        EntityRef inventory = itemInventories.get(item);
+        if (inventory != null) {
+            updateItem(inventoryIndexes.get(inventory), item, getFilling(item, time.getGameTimeInMs()));
+        }
+    }
+
+    @ReceiveEvent(components = InventoryComponent.class)
+    public void onInventoryDeactivated(BeforeDeactivateComponent event, EntityRef inventory) {
+        FoodIndex index = inventoryIndexes.remove(inventory);
+        if (index != null) {
+            itemInventories.values().removeIf(inventory::equals);
+        }
+    }
+
+    private FoodIndex getIndex(EntityRef inventory) {
+        FoodIndex index = inventoryIndexes.get(inventory);
+        if (index == null && inventory.hasComponent(InventoryComponent.class)) {
+            index = new FoodIndex();
+            int slotCount = InventoryUtils.getSlotCount(inventory);
+            for (int slot = 0; slot < slotCount; slot++) {
+                addItem(index, inventory, InventoryUtils.getItemAt(inventory, slot));
+            }
+            inventoryIndexes.put(inventory, index);
+        }
+        return index;
+    }
+
+    private void addItem(FoodIndex index, EntityRef inventory, EntityRef item) {
+        if (item.hasComponent(FoodComponent.class)) {
+            updateItem(index, item, getFilling(item, time.getGameTimeInMs()));
+            itemInventories.put(item, inventory);
+        }
+    }
+
+    /**
+     * Indexes the item with the given filling, or leaves it out of the index if it is not filling at all.
+     */
+    private static void updateItem(FoodIndex index, EntityRef item, float filling) {
+        if (filling > 0) {
+            index.put(item, filling);
+        } else {
+            index.remove(item);
+        }
+    }
+
+    private void removeItem(FoodIndex index, EntityRef inventory, EntityRef item) {
+        // The item may have been moved into another inventory already.
+        if (itemInventories.remove(item, inventory)) {
+            index.remove(item);
+        }
+    }
+
+    private static float getFilling(EntityRef item, long gameTime) {
+        FoodComponent food = item.getComponent(FoodComponent.class);
+        return food != null && food.filling != null ? HungerUtils.getFilling(item, food, gameTime) : 0;
+    }
+
+    private static float getFilling(FoodComponent food) {
+        return food != null && food.filling != null ? food.filling.getValue() : 0;
+    }
+}
@@ -0,0 +1,59 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The food items of a single inventory, ordered by how filling they are.
+ */
+final class FoodIndex {
+    private final NavigableMap<Float, Set<EntityRef>> itemsByFilling = new TreeMap<>();
+    private final Map<EntityRef, Float> fillings = new HashMap<>();
+
+    void put(EntityRef item, float filling) {
+        remove(item);
+        fillings.put(item, filling);
+        itemsByFilling.computeIfAbsent(filling, key -> new LinkedHashSet<>()).add(item);
+    }
+
+    void remove(EntityRef item) {
+        Float filling = fillings.remove(item);
+        if (filling != null) {
+            Set<EntityRef> items = itemsByFilling.get(filling);
+            items.remove(item);
+            if (items.isEmpty()) {
+                itemsByFilling.remove(filling);
+            }
+        }
+    }
+
+    /**
+     * @return The filling the item was indexed with, or 0 if it is not indexed.
+     */
+    float getFilling(EntityRef item) {
+        return fillings.getOrDefault(item, 0f);
+    }
+
+    /**
+     * Finds the item which gets closest to filling up the given amount of food. Items which fit in completely are
+     * preferred, the most filling of them is chosen. Otherwise the item wasting the least food is chosen.
+     *
+     * @param missingFood The amount of food missing.
+     * @return The best item to eat, or {@link EntityRef#NULL} if there is no food.
+     */
+    EntityRef getBest(float missingFood) {
+        Map.Entry<Float, Set<EntityRef>> entry = itemsByFilling.floorEntry(missingFood);
+        if (entry == null) {
+            entry = itemsByFilling.ceilingEntry(missingFood);
+        }
+        return entry != null ? entry.getValue().iterator().next() : EntityRef.NULL;
+    }
+}
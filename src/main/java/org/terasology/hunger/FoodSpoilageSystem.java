@@ -0,0 +1,209 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.event.EventPriority;
+import org.terasology.engine.entitySystem.event.Priority;
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.logic.inventory.ItemComponent;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.hunger.component.SpoilageComponent;
+import org.terasology.module.inventory.components.InventoryComponent;
+import org.terasology.module.inventory.events.BeforeItemPutInInventory;
+import org.terasology.module.inventory.events.InventorySlotChangedEvent;
+import org.terasology.module.inventory.events.InventorySlotStackSizeChangedEvent;
+import org.terasology.module.inventory.systems.InventoryManager;
+import org.terasology.module.inventory.systems.InventoryUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lets food spoil without ever updating stored food: the freshness of an item is only calculated when it is needed,
+ * i.e. when it is eaten, queried through the {@link HungerService} or put into an inventory slot. Completely spoiled
+ * food is replaced by its spoiled item when it is put into a slot. The replacement happens at the end of the frame, so
+ * it does not change the inventory while other systems are still handling the change that put the food there.
+ * <p>
+ * A stack of items has a single freshness. When food is merged into a stack, the stack takes the average freshness of
+ * its items, weighted by their count. The stack size change does not tell where the added items came from, so their
+ * freshness is taken from the item that was put into the slot just before. Stacks which grow without such an item,
+ * e.g. when another system changes the stack size directly, keep their freshness.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(FoodSpoilageSystem.class)
+public class FoodSpoilageSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+    @In
+    private Time time;
+    @In
+    private EntityManager entityManager;
+    @In
+    private InventoryManager inventoryManager;
+
+    /**
+     * Spoiled food that was put into an inventory slot in the current frame, mapped to the inventory.
+     */
+    private final Map<EntityRef, EntityRef> pendingReplacements = new LinkedHashMap<>();
+    private final List<Map.Entry<EntityRef, EntityRef>> pendingReplacementBuffer = new ArrayList<>();
+
+    /**
+     * The slot which food with the given freshness is about to be merged into. Reset at the end of the frame, in case
+     * the merge did not happen.
+     */
+    private EntityRef mergeInventory = EntityRef.NULL;
+    private int mergeSlot = -1;
+    private float mergeFreshness;
+
+    @Override
+    public void shutdown() {
+        pendingReplacements.clear();
+    }
+
+    @Override
+    public void update(float delta) {
+        mergeInventory = EntityRef.NULL;
+        if (pendingReplacements.isEmpty()) {
+            return;
+        }
+        // Replacing food changes inventory slots, which must not add to the replacements being iterated.
+        pendingReplacementBuffer.addAll(pendingReplacements.entrySet());
+        pendingReplacements.clear();
+        for (Map.Entry<EntityRef, EntityRef> replacement : pendingReplacementBuffer) {
+            replaceSpoiledFood(replacement.getValue(), replacement.getKey());
+        }
+        pendingReplacementBuffer.clear();
+    }
+
+    /**
+     * Starts the spoilage of newly created food. Food loaded from storage keeps its freshness.
+     *
+     * @param event The OnActivatedComponent event.
+     * @param item The food item.
+     * @param spoilage The item's spoilage state.
+     */
+    @ReceiveEvent
+    public void onSpoilageActivated(OnActivatedComponent event, EntityRef item, SpoilageComponent spoilage) {
+        if (spoilage.lastCalculationTime < 0) {
+            spoilage.lastCalculationTime = time.getGameTimeInMs();
+            item.saveComponent(spoilage);
+        }
+    }
+
+    /**
+     * Remembers the freshness of food which is put onto a stack of the same kind, for the stack size change that
+     * follows. Runs last, so food whose move another system prevented is skipped.
+     *
+     * @param event The BeforeItemPutInInventory event.
+     * @param inventory The inventory the food is put into.
+     */
+    @Priority(EventPriority.PRIORITY_TRIVIAL)
+    @ReceiveEvent(components = InventoryComponent.class)
+    public void beforeFoodPutInInventory(BeforeItemPutInInventory event, EntityRef inventory) {
+        EntityRef item = event.getItem();
+        SpoilageComponent spoilage = item.getComponent(SpoilageComponent.class);
+        if (spoilage == null || event.getSlot() < 0 || event.getSlot() >= InventoryUtils.getSlotCount(inventory)) {
+            return;
+        }
+        EntityRef stack = InventoryUtils.getItemAt(inventory, event.getSlot());
+        ItemComponent itemComp = item.getComponent(ItemComponent.class);
+        ItemComponent stackComp = stack.getComponent(ItemComponent.class);
+        if (stack.equals(item) || itemComp == null || stackComp == null || itemComp.stackId == null
+                || itemComp.stackId.isEmpty() || !itemComp.stackId.equals(stackComp.stackId)) {
+            return;
+        }
+        mergeInventory = inventory;
+        mergeSlot = event.getSlot();
+        mergeFreshness = HungerUtils.getFreshness(spoilage, time.getGameTimeInMs());
+    }
+
+    /**
+     * Gives a stack of food which grew by merging food into it the average freshness of all its items.
+     *
+     * @param event The InventorySlotStackSizeChangedEvent.
+     * @param inventory The inventory whose slot changed.
+     */
+    @ReceiveEvent(components = InventoryComponent.class)
+    public void onStackSizeChanged(InventorySlotStackSizeChangedEvent event, EntityRef inventory) {
+        if (!inventory.equals(mergeInventory) || event.getSlot() != mergeSlot) {
+            return;
+        }
+        mergeInventory = EntityRef.NULL;
+        int oldSize = event.getOldSize();
+        int newSize = event.getNewSize();
+        EntityRef stack = InventoryUtils.getItemAt(inventory, event.getSlot());
+        SpoilageComponent spoilage = stack.getComponent(SpoilageComponent.class);
+        if (spoilage == null || oldSize <= 0 || newSize <= oldSize) {
+            return;
+        }
+        long gameTime = time.getGameTimeInMs();
+        float freshness = HungerUtils.getFreshness(spoilage, gameTime);
+        spoilage.lastCalculatedFreshness = (freshness * oldSize + mergeFreshness * (newSize - oldSize)) / newSize;
+        spoilage.lastCalculationTime = gameTime;
+        stack.saveComponent(spoilage);
+        if (isSpoiled(stack)) {
+            pendingReplacements.put(stack, inventory);
+        }
+    }
+
+    /**
+     * Marks completely spoiled food for replacement with its spoiled item when it is put into an inventory slot.
+     *
+     * @param event The InventorySlotChangedEvent.
+     * @param inventory The inventory whose slot changed.
+     */
+    @ReceiveEvent(components = InventoryComponent.class)
+    public void onInventorySlotChanged(InventorySlotChangedEvent event, EntityRef inventory) {
+        EntityRef item = event.getNewItem();
+        if (isSpoiled(item)) {
+            pendingReplacements.put(item, inventory);
+        }
+    }
+
+    private boolean isSpoiled(EntityRef item) {
+        SpoilageComponent spoilage = item.getComponent(SpoilageComponent.class);
+        return spoilage != null && spoilage.spoiledPrefab != null
+                && HungerUtils.getFreshness(spoilage, time.getGameTimeInMs()) <= 0;
+    }
+
+    /**
+     * Replaces spoiled food with its spoiled item, in the slot the food is in now. Food which has been eaten, moved to
+     * another inventory or freshened up in the meantime is left alone.
+     */
+    private void replaceSpoiledFood(EntityRef inventory, EntityRef item) {
+        if (!item.exists() || !isSpoiled(item)) {
+            return;
+        }
+        ItemComponent itemComp = item.getComponent(ItemComponent.class);
+        int slot = InventoryUtils.getSlotWithItem(inventory, item);
+        if (itemComp == null || slot < 0) {
+            return;
+        }
+        Prefab spoiledPrefab = item.getComponent(SpoilageComponent.class).spoiledPrefab;
+        byte stackCount = itemComp.stackCount;
+        inventoryManager.removeItem(inventory, EntityRef.NULL, item, true);
+        if (InventoryUtils.getSlotWithItem(inventory, item) >= 0) {
+            // Another system prevented the removal.
+            return;
+        }
+        EntityRef spoiled = entityManager.create(spoiledPrefab);
+        ItemComponent spoiledItem = spoiled.getComponent(ItemComponent.class);
+        if (spoiledItem != null) {
+            spoiledItem.stackCount = stackCount;
+            spoiled.saveComponent(spoiledItem);
+        }
+        if (!inventoryManager.giveItem(inventory, EntityRef.NULL, spoiled, slot)) {
+            spoiled.destroy();
+        }
+    }
+}
@@ -15,11 +15,15 @@
  */
 package org.terasology.hunger;
 
+import org.joml.Vector3f;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.core.Time;
 import org.terasology.engine.entitySystem.entity.EntityManager;
 import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.engine.entitySystem.event.EventPriority;
 import org.terasology.engine.entitySystem.event.Priority;
 import org.terasology.engine.entitySystem.prefab.Prefab;
@@ -27,37 +31,66 @@ import org.terasology.engine.entitySystem.prefab.PrefabManager;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
 import org.terasology.engine.logic.characters.AliveCharacterComponent;
 import org.terasology.engine.logic.common.ActivateEvent;
 import org.terasology.engine.logic.delay.DelayManager;
-import org.terasology.engine.logic.delay.PeriodicActionTriggeredEvent;
 import org.terasology.engine.logic.inventory.ItemComponent;
+import org.terasology.engine.logic.location.LocationComponent;
 import org.terasology.engine.logic.players.event.OnPlayerRespawnedEvent;
 import org.terasology.engine.logic.players.event.OnPlayerSpawnedEvent;
+import org.terasology.engine.network.ClientComponent;
 import org.terasology.engine.registry.In;
 import org.terasology.engine.world.WorldComponent;
 import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
 import org.terasology.hunger.component.FoodComponent;
 import org.terasology.hunger.component.HungerComponent;
-import org.terasology.hunger.event.AffectHungerEvent;
+import org.terasology.hunger.component.NutrientChannel;
+import org.terasology.hunger.component.NutrientsComponent;
+import org.terasology.hunger.event.ChangeNutrientEvent;
+import org.terasology.hunger.event.ConsumeFoodEvent;
 import org.terasology.hunger.event.FoodConsumedEvent;
+import org.terasology.hunger.event.HungerDecayChangedEvent;
 import org.terasology.module.health.events.BeforeRegenEvent;
 import org.terasology.module.health.events.DoDamageEvent;
 import org.terasology.module.inventory.systems.InventoryManager;
 import org.terasology.module.inventory.systems.InventoryUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import static org.terasology.module.health.core.BaseRegenAuthoritySystem.BASE_REGEN;
 
 /**
  * The authority system monitoring player hunger levels, related events and commands.
+ * <p>
+ * The nutrient channels of a hungry entity are handled together with its hunger: the entity has a single entry in the
+ * starvation schedule for the earliest time its hunger or any of its channels runs low, and while it is starving, the
+ * damage of all depleted sources is dealt in a single damage event.
  */
 @RegisterSystem(RegisterMode.AUTHORITY)
-public class HungerAuthoritySystem extends BaseComponentSystem {
+public class HungerAuthoritySystem extends BaseComponentSystem implements UpdateSubscriberSystem {
     /**
      * The logger for debugging to the log files.
      */
     private static final Logger logger = LoggerFactory.getLogger(HungerAuthoritySystem.class);
 
+    /**
+     * The smallest number of due entities taken from the schedule at once.
+     */
+    private static final int MIN_SLICE_SIZE = 16;
+
+    /**
+     * The number of due entities in a slice from which on their food levels are evaluated in parallel. Only the food
+     * levels are evaluated in parallel, as the starvation checks and damage need the entities' components. These
+     * dominate the measured cost per entity, which the slices are sized by to fit into the tick budget, so slices this
+     * large only occur with a tick budget far above the default one.
+     */
+    private static final int PARALLEL_SLICE_SIZE = 2048;
+
     /**
      * Reference to the EntityManager, used for getting all entities who are affected by hunger.
      */
@@ -83,55 +116,726 @@ public class HungerAuthoritySystem extends BaseComponentSystem {
     private Time time;
 
     /**
-     * Reference to DelayManager, used for addPeriodicAction.
+     * Reference to DelayManager, used for cancelling the obsolete periodic hunger damage action.
      */
     @In
     private DelayManager delayManager;
+
+    /**
+     * Reference to the HungerDecayModifierRegistry, used for calculating the food decay of an entity.
+     */
+    @In
+    private HungerDecayModifierRegistry decayModifierRegistry;
+
+    /**
+     * Reference to the HungerService, used for getting the current hunger level of an entity.
+     */
+    @In
+    private HungerService hungerService;
+
+    /**
+     * Reference to the HungerStatistics, used for recording what this system does.
+     */
+    @In
+    private HungerStatistics statistics;
+
+    /**
+     * Reference to the HungryEntityIndex, which is kept up to date by this system.
+     */
+    @In
+    private HungryEntityIndex hungryEntityIndex;
     /**
      * The interval (in milliseconds) at which healthDecreaseAmount (above) is applied to the component.
      */
     public int healthDecreaseInterval = 3000;
 
+    /**
+     * Changes to the food level of an entity smaller than this are not saved to its HungerComponent.
+     */
+    public float foodEpsilon = HungerUtils.DEFAULT_FOOD_EPSILON;
+
+    /**
+     * Changes to the food decay per second of an entity smaller than this are not saved to its HungerComponent.
+     */
+    public float decayEpsilon = 0.000001f;
+
+    /**
+     * The time (in microseconds) per frame that may be spent on dealing starvation damage. Damage that does not fit
+     * into a frame is dealt in the following frames.
+     */
+    public int tickBudgetMicros = 500;
+
+    /**
+     * The maximum number of due entities that are dealt starvation damage in a frame, regardless of the time budget.
+     */
+    public int maxEntitiesPerTick = 4096;
+
+    /**
+     * Starving entities further away than this from every player's character are checked for starvation damage less
+     * often. The damage they are owed is dealt at once, so it adds up to the same amount. Set to 0 to disable.
+     */
+    public float lodDistance = 96;
+
+    /**
+     * The number of damage intervals after which starving entities far away from all players are checked.
+     */
+    public int lodIntervalMultiplier = 10;
+
+    /**
+     * The fraction of healthDecreaseAmount by which starvation damage increases with every further interval an
+     * entity keeps starving. 0 keeps the damage constant.
+     */
+    public float starvationDamageIncrease = 0;
+
+    /**
+     * The maximum factor by which starvation damage can increase over healthDecreaseAmount.
+     */
+    public float maxStarvationDamageFactor = 1;
+
+    /**
+     * The maximum number of damage intervals an entity which was starving while it was unloaded is dealt on top of
+     * the regular damage when it is loaded again.
+     */
+    public int retroactiveStarvationIntervals = 0;
+
+    /**
+     * The time (in milliseconds) over which the first starvation damage of loaded entities is spread, so entities
+     * loaded together are not all damaged in the same frame.
+     */
+    public int rehydrationSpreadMs = 3000;
+
+    /**
+     * The damage type of starvation damage, resolved once and again after the prefab has been disposed.
+     */
+    private Prefab starvationDamagePrefab;
+
+    /**
+     * The id of the periodic action which used to deal starvation damage to all entities at once. It is cancelled on
+     * worlds created with older versions of this module.
+     */
     public static final String HUNGER_DAMAGE_ACTION_ID = "Hunger Damage";
-    private boolean destroyDrink = false;
+
+    /**
+     * The points in time at which the hungry entities will start starving or, if they are starving already, are due
+     * their next starvation damage. Only due entities are visited each frame.
+     */
+    private final StarvationSchedule starvationSchedule = new StarvationSchedule();
+
+    /**
+     * The hunger state of all living hungry entities, so starving entities can be evaluated without component lookups.
+     */
+    private final HungerStateStore stateStore = new HungerStateStore();
+
+    /**
+     * Entities whose food decay has to be recalculated. Changes signalled within a frame are applied together at the
+     * end of it, so every entity is recalculated and saved at most once.
+     */
+    private final Set<EntityRef> pendingDecayUpdates = new LinkedHashSet<>();
+    private final List<EntityRef> pendingDecayBuffer = new ArrayList<>();
+
+    /**
+     * The entities due for a starvation check in the current frame, along with their slot in the state store, the
+     * time they were due and their hunger level at that time.
+     */
+    private final List<EntityRef> dueEntities = new ArrayList<>();
+    private int[] dueSlots = new int[64];
+    private long[] dueTimes = new long[64];
+    private float[] dueFood = new float[64];
+
+    /**
+     * The average time in ns it took to deal with a due entity in the recent slices, used to size the next slice.
+     */
+    private long nanosPerEntity = 10_000;
+
+    /**
+     * The client entities of all connected players, maintained from their lifecycle events so the positions of their
+     * characters can be gathered without querying the entity manager every frame.
+     */
+    private final List<EntityRef> clients = new ArrayList<>();
+
+    /**
+     * The positions of all players' characters in the current frame, used for the distance based level of detail.
+     */
+    private final List<Vector3f> playerPositions = new ArrayList<>();
+    private int playerCount;
+    private long playerPositionsTime = -1;
+    private final Vector3f entityPosition = new Vector3f();
 
     public void postBegin() {
-        boolean processedOnce = false;
-        for (EntityRef entity : entityManager.getEntitiesWith(WorldComponent.class)) {
-            if (!processedOnce) {
-                delayManager.addPeriodicAction(entity, HUNGER_DAMAGE_ACTION_ID, 0, healthDecreaseInterval);
-                processedOnce = true;
+        for (EntityRef client : entityManager.getEntitiesWith(ClientComponent.class)) {
+            addClient(client);
+        }
+        for (EntityRef world : entityManager.getEntitiesWith(WorldComponent.class)) {
+            cancelObsoleteDamageAction(world);
+        }
+        for (EntityRef entity : entityManager.getEntitiesWith(HungerComponent.class, AliveCharacterComponent.class)) {
+            updateFoodDecay(entity, entity.getComponent(HungerComponent.class));
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        starvationDamagePrefab = null;
+        starvationSchedule.clear();
+        stateStore.clear();
+        pendingDecayUpdates.clear();
+        clients.clear();
+    }
+
+    @Override
+    public void update(float delta) {
+        processDecayUpdates();
+        processStarvation();
+    }
+
+    private void processDecayUpdates() {
+        if (pendingDecayUpdates.isEmpty()) {
+            return;
+        }
+        pendingDecayBuffer.addAll(pendingDecayUpdates);
+        pendingDecayUpdates.clear();
+        for (EntityRef entity : pendingDecayBuffer) {
+            HungerComponent hunger = entity.getComponent(HungerComponent.class);
+            if (hunger != null && entity.hasComponent(AliveCharacterComponent.class)) {
+                updateFoodDecay(entity, hunger);
+            }
+        }
+        pendingDecayBuffer.clear();
+    }
+
+    /**
+     * Deals the starvation damage that is due, for as long as the frame budget allows. Each entity is evaluated at
+     * the time its damage was due rather than the current time, so entities that had to wait for a later frame are
+     * dealt exactly the damage they would have received otherwise.
+     * <p>
+     * Due entities are taken from the schedule in slices, sized by how many entities are expected to fit into the
+     * remaining budget. The hunger levels of a slice are evaluated from the state store, which is not modified in the
+     * meantime and can therefore be read in parallel, and then applied one by one in the order the entities were
+     * due, as only that part touches the entity system. Entities which do not fit into the frame stay in the schedule.
+     */
+    private void processStarvation() {
+        long gameTime = time.getGameTimeInMs();
+        if (starvationSchedule.getNextTime() > gameTime) {
+            return;
+        }
+        long tickStart = statistics.startTick();
+        long budgetEnd = System.nanoTime() + tickBudgetMicros * 1000L;
+        int remaining = maxEntitiesPerTick;
+        int processed = 0;
+
+        while (remaining > 0) {
+            long sliceStart = System.nanoTime();
+            long sliceSize = Math.max(MIN_SLICE_SIZE, (budgetEnd - sliceStart) / Math.max(1, nanosPerEntity));
+            int count = pollDueEntities(gameTime, (int) Math.min(remaining, sliceSize));
+            if (count == 0) {
+                break;
+            }
+            if (count >= PARALLEL_SLICE_SIZE) {
+                stateStore.evaluateParallel(dueSlots, dueTimes, count, dueFood);
             } else {
-                logger.warn("More than one entity with WorldComponent found");
+                stateStore.evaluate(dueSlots, dueTimes, count, dueFood);
+            }
+            for (int i = 0; i < count; i++) {
+                applyStarvation(dueEntities.get(i), dueTimes[i], dueFood[i]);
+            }
+            dueEntities.clear();
+
+            long sliceEnd = System.nanoTime();
+            nanosPerEntity = (nanosPerEntity + (sliceEnd - sliceStart) / count) / 2;
+            processed += count;
+            remaining -= count;
+            if (sliceEnd >= budgetEnd) {
+                break;
             }
         }
+        statistics.endTick(tickStart, processed);
     }
 
     /**
-     * Deals a unit of hunger damage to the character.
+     * Takes up to the given number of due entities from the schedule.
+     *
+     * @return The number of due entities, which are stored in the due buffers.
      */
-    @ReceiveEvent
-    public void onPeriodicActionTriggered(PeriodicActionTriggeredEvent event, EntityRef entityUnused) {
-        if (event.getActionId().equals(HUNGER_DAMAGE_ACTION_ID)) {
-            for (EntityRef entity : entityManager.getEntitiesWith(HungerComponent.class,
-                    AliveCharacterComponent.class)) {
-                HungerComponent hunger = entity.getComponent(HungerComponent.class);
-                final float expectedDecay = (healthDecreaseInterval * hunger.foodDecayPerSecond) / 1000;
-                // Send event to allow for other systems to modify hunger decay.
-                AffectHungerEvent affectHungerEvent = new AffectHungerEvent(expectedDecay);
-                entity.send(affectHungerEvent);
-                hunger.lastCalculatedFood = Math.max(0, hunger.lastCalculatedFood - affectHungerEvent.getResultValue());
-                hunger.lastCalculationTime = time.getGameTimeInMs();
-                entity.saveComponent(hunger);
-
-                // Check to see if health should be decreased
-                if (HungerUtils.getHungerForEntity(entity) < hunger.healthLossThreshold) {
-                    Prefab starvationDamagePrefab = prefabManager.getPrefab("hunger:starvationDamage");
-                    entity.send(new DoDamageEvent(hunger.healthDecreaseAmount, starvationDamagePrefab));
-                    entity.saveComponent(hunger);
+    private int pollDueEntities(long gameTime, int maxCount) {
+        while (dueEntities.size() < maxCount) {
+            EntityRef entity = starvationSchedule.pollDue(gameTime);
+            if (entity == null) {
+                break;
+            }
+            int slot = stateStore.getSlot(starvationSchedule.getDueId());
+            if (slot >= 0) {
+                addDueEntity(entity, slot, starvationSchedule.getDueTime());
+            }
+        }
+        return dueEntities.size();
+    }
+
+    private void addDueEntity(EntityRef entity, int slot, long dueTime) {
+        int index = dueEntities.size();
+        if (index == dueSlots.length) {
+            dueSlots = Arrays.copyOf(dueSlots, index * 2);
+            dueTimes = Arrays.copyOf(dueTimes, index * 2);
+            dueFood = Arrays.copyOf(dueFood, index * 2);
+        }
+        dueEntities.add(entity);
+        dueSlots[index] = slot;
+        dueTimes[index] = dueTime;
+    }
+
+    private void applyStarvation(EntityRef entity, long dueTime, float food) {
+        // Slots move when other entities are removed, e.g. because they died from starvation in this frame.
+        int slot = stateStore.getSlot(entity);
+        if (slot < 0) {
+            return;
+        }
+        // Check to see if health should be decreased
+        boolean hungry = food < stateStore.getLossThreshold(slot);
+        if (!hungry && getChannelStarvationTime(entity.getComponent(NutrientsComponent.class), dueTime) > dueTime) {
+            scheduleStarvation(entity, entity.getComponent(HungerComponent.class));
+            return;
+        }
+        long damageTime = stateStore.getDamageTime(slot);
+        if (damageTime == HungerStateStore.NO_DAMAGE_TIME) {
+            stateStore.setDamageTime(slot, dueTime);
+            stateStore.setStarvationStart(slot, dueTime);
+        } else if (damageTime > dueTime) {
+            // The damage up to a later interval has been dealt already, when the hunger of the entity changed.
+            scheduleDamage(entity, damageTime);
+            return;
+        }
+        if (hungry && statistics.isEnabled()) {
+            HungerComponent hunger = entity.getComponent(HungerComponent.class);
+            statistics.checkStarvationDamage(HungerUtils.getHunger(hunger, dueTime), hunger.healthLossThreshold);
+        }
+        dealOwedDamage(entity, slot, dueTime);
+
+        // The damage may have killed the entity or moved its slot.
+        slot = stateStore.getSlot(entity);
+        if (slot >= 0) {
+            scheduleDamage(entity, stateStore.getDamageTime(slot));
+        }
+    }
+
+    /**
+     * Deals the starvation damage of all damage intervals owed up to the given time in a single damage event, and
+     * moves the entity's damage time past them. Every interval is owed the damage of the hunger and of each nutrient
+     * channel which was depleted at its time. Once depleted, a source stays depleted until the entity's hunger or
+     * channels change, which settles the damage owed up to then first.
+     */
+    private void dealOwedDamage(EntityRef entity, int slot, long untilTime) {
+        long firstOwedTime = stateStore.getDamageTime(slot);
+        if (firstOwedTime == HungerStateStore.NO_DAMAGE_TIME || firstOwedTime > untilTime) {
+            return;
+        }
+        int owedIntervals = (int) ((untilTime - firstOwedTime) / healthDecreaseInterval) + 1;
+        long starvingFor = firstOwedTime - stateStore.getStarvationStart(slot);
+        int previousIntervals = (int) (starvingFor / healthDecreaseInterval);
+        long hungrySince = stateStore.getTimeBelow(slot, stateStore.getLossThreshold(slot), firstOwedTime);
+        int damage = getSourceDamage(stateStore.getDamageAmount(slot), hungrySince, firstOwedTime, previousIntervals,
+                owedIntervals);
+        NutrientsComponent nutrients = entity.getComponent(NutrientsComponent.class);
+        if (nutrients != null) {
+            for (int i = 0; i < nutrients.channels.size(); i++) {
+                NutrientChannel channel = nutrients.channels.get(i);
+                if (channel.healthDecreaseAmount > 0) {
+                    long depletedSince = HungerUtils.getTimeBelow(channel, channel.healthLossThreshold, firstOwedTime);
+                    damage += getSourceDamage(channel.healthDecreaseAmount, depletedSince, firstOwedTime,
+                            previousIntervals, owedIntervals);
+                }
+            }
+        }
+        stateStore.setDamageTime(slot, firstOwedTime + (long) owedIntervals * healthDecreaseInterval);
+        if (damage > 0) {
+            entity.send(new DoDamageEvent(damage, getStarvationDamagePrefab()));
+            statistics.recordDamageEvent();
+        }
+    }
+
+    /**
+     * Deals the starvation damage an entity owes up to now, before a change of its hunger takes effect. Entities far
+     * away from players are only checked every few damage intervals, and the intervals they owe when they stop
+     * starving in between would otherwise be lost.
+     *
+     * @return Whether the entity is still tracked, i.e. the damage did not kill it.
+     */
+    private boolean settleOwedDamage(EntityRef entity) {
+        int slot = stateStore.getSlot(entity);
+        if (slot < 0) {
+            return true;
+        }
+        dealOwedDamage(entity, slot, time.getGameTimeInMs());
+        return stateStore.getSlot(entity) >= 0;
+    }
+
+    /**
+     * Schedules the next starvation damage of an entity, later if it is far away from all players.
+     */
+    private void scheduleDamage(EntityRef entity, long damageTime) {
+        if (!isNearPlayer(entity)) {
+            damageTime += (long) (lodIntervalMultiplier - 1) * healthDecreaseInterval;
+        }
+        starvationSchedule.schedule(entity, damageTime);
+    }
+
+    /**
+     * Calculates the damage a single source of starvation, i.e. the hunger or a nutrient channel, contributes to the
+     * owed damage intervals. Intervals before the source was depleted are skipped.
+     *
+     * @param amount The damage of the source in the first interval of starvation.
+     * @param depletedSince The game time in ms from which on the source is depleted.
+     * @param firstOwedTime The game time in ms of the first owed interval.
+     * @param previousIntervals The number of intervals the entity has been starving for before the owed ones.
+     * @param owedIntervals The number of intervals the damage is owed for.
+     * @return The damage owed for the source.
+     */
+    private int getSourceDamage(int amount, long depletedSince, long firstOwedTime, int previousIntervals,
+                                int owedIntervals) {
+        if (depletedSince == StarvationSchedule.NEVER) {
+            return 0;
+        }
+        long delay = Math.max(0, depletedSince - firstOwedTime);
+        long intervalsBefore = (delay + healthDecreaseInterval - 1) / healthDecreaseInterval;
+        int skippedIntervals = (int) Math.min(owedIntervals, intervalsBefore);
+        return getStarvationDamage(amount, previousIntervals + skippedIntervals, owedIntervals - skippedIntervals);
+    }
+
+    /**
+     * Calculates the damage owed for a number of consecutive starvation intervals.
+     *
+     * @param amount The damage of the first interval of starvation.
+     * @param previousIntervals The number of intervals the entity has been starving for before the owed ones.
+     * @param owedIntervals The number of intervals the damage is owed for.
+     * @return The total damage owed.
+     */
+    private int getStarvationDamage(int amount, int previousIntervals, int owedIntervals) {
+        if (starvationDamageIncrease == 0) {
+            return amount * owedIntervals;
+        }
+        float damage = 0;
+        for (int i = previousIntervals; i < previousIntervals + owedIntervals; i++) {
+            damage += amount * Math.min(maxStarvationDamageFactor, 1 + starvationDamageIncrease * i);
+        }
+        return Math.round(damage);
+    }
+
+    /**
+     * Calculates when the first of the nutrient channels which deal damage drops below its health loss threshold.
+     *
+     * @param nutrients The nutrient channels of an entity, or null if it has none.
+     * @param gameTime The game time in ms to check from.
+     * @return The game time in ms at which the first channel is below its threshold, which lies at or before
+     *         {@code gameTime} if a channel already is, or {@link StarvationSchedule#NEVER} if none ever will be.
+     */
+    private static long getChannelStarvationTime(NutrientsComponent nutrients, long gameTime) {
+        long starvationTime = StarvationSchedule.NEVER;
+        if (nutrients != null) {
+            for (int i = 0; i < nutrients.channels.size(); i++) {
+                NutrientChannel channel = nutrients.channels.get(i);
+                if (channel.healthDecreaseAmount > 0) {
+                    long channelTime = HungerUtils.getTimeBelow(channel, channel.healthLossThreshold,
+                            Math.min(gameTime, channel.lastCalculationTime));
+                    starvationTime = Math.min(starvationTime, channelTime);
                 }
             }
         }
+        return starvationTime;
+    }
+
+    private Prefab getStarvationDamagePrefab() {
+        if (starvationDamagePrefab == null || starvationDamagePrefab.isDisposed()) {
+            starvationDamagePrefab = prefabManager.getPrefab("hunger:starvationDamage");
+        }
+        return starvationDamagePrefab;
+    }
+
+    private boolean isNearPlayer(EntityRef entity) {
+        if (lodDistance <= 0 || lodIntervalMultiplier <= 1) {
+            return true;
+        }
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        if (location == null) {
+            return true;
+        }
+        location.getWorldPosition(entityPosition);
+        if (!entityPosition.isFinite()) {
+            return true;
+        }
+        updatePlayerPositions();
+        float maxDistanceSquared = lodDistance * lodDistance;
+        for (int i = 0; i < playerCount; i++) {
+            if (playerPositions.get(i).distanceSquared(entityPosition) <= maxDistanceSquared) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updatePlayerPositions() {
+        long gameTime = time.getGameTimeInMs();
+        if (playerPositionsTime == gameTime) {
+            return;
+        }
+        playerPositionsTime = gameTime;
+        playerCount = 0;
+        for (int i = 0; i < clients.size(); i++) {
+            ClientComponent client = clients.get(i).getComponent(ClientComponent.class);
+            LocationComponent location = client != null ? client.character.getComponent(LocationComponent.class) : null;
+            if (location == null) {
+                continue;
+            }
+            if (playerCount == playerPositions.size()) {
+                playerPositions.add(new Vector3f());
+            }
+            location.getWorldPosition(playerPositions.get(playerCount));
+            if (playerPositions.get(playerCount).isFinite()) {
+                playerCount++;
+            }
+        }
+    }
+
+    /**
+     * Starts considering the character of a player who connected for the distance based level of detail.
+     *
+     * @param event The OnActivatedComponent event.
+     * @param client The client entity of the player.
+     */
+    @ReceiveEvent(components = ClientComponent.class)
+    public void onClientActivated(OnActivatedComponent event, EntityRef client) {
+        addClient(client);
+    }
+
+    /**
+     * Stops considering the character of a player who disconnected.
+     *
+     * @param event The BeforeDeactivateComponent event.
+     * @param client The client entity of the player.
+     */
+    @ReceiveEvent(components = ClientComponent.class)
+    public void onClientDeactivated(BeforeDeactivateComponent event, EntityRef client) {
+        clients.remove(client);
+    }
+
+    private void addClient(EntityRef client) {
+        if (!clients.contains(client)) {
+            clients.add(client);
+        }
+    }
+
+    /**
+     * Cleans up worlds which are added while the game is running. Starvation damage itself is not bound to any world
+     * entity, so nothing has to be registered or released when worlds come and go.
+     *
+     * @param event The OnActivatedComponent event, called when a world entity is activated.
+     * @param world The world entity.
+     */
+    @ReceiveEvent(components = WorldComponent.class)
+    public void onWorldActivated(OnActivatedComponent event, EntityRef world) {
+        cancelObsoleteDamageAction(world);
+    }
+
+    private void cancelObsoleteDamageAction(EntityRef world) {
+        if (delayManager.hasPeriodicAction(world, HUNGER_DAMAGE_ACTION_ID)) {
+            logger.info("Cancelling obsolete periodic hunger damage action");
+            delayManager.cancelPeriodicAction(world, HUNGER_DAMAGE_ACTION_ID);
+        }
+    }
+
+    /**
+     * Starts tracking the hunger of a living entity.
+     *
+     * @param event The OnActivatedComponent event, called when the hunger or the alive state of an entity is activated.
+     * @param entity The entity which has become subject to hunger.
+     * @param hunger The entity's hunger configuration.
+     */
+    @ReceiveEvent(components = AliveCharacterComponent.class)
+    public void onHungerActivated(OnActivatedComponent event, EntityRef entity, HungerComponent hunger) {
+        // Calculated before the food level is possibly rebased to the current time.
+        long starvingSince = Math.min(
+                HungerUtils.getTimeBelow(hunger, hunger.healthLossThreshold, hunger.lastCalculationTime),
+                getChannelStarvationTime(entity.getComponent(NutrientsComponent.class), time.getGameTimeInMs()));
+        updateFoodDecay(entity, hunger);
+        admitStarvingEntity(entity, starvingSince);
+    }
+
+    /**
+     * Schedules the first starvation damage of an entity which is already starving when it becomes subject to hunger,
+     * e.g. because it was loaded from storage. The damage for the time it was unloaded is limited to
+     * retroactiveStarvationIntervals, and the first damage is delayed by an offset depending on the entity, spreading
+     * the damage of entities loaded together over rehydrationSpreadMs.
+     *
+     * @param entity The entity which became subject to hunger.
+     * @param starvingSince The game time in ms at which the entity started starving.
+     */
+    private void admitStarvingEntity(EntityRef entity, long starvingSince) {
+        int slot = stateStore.getSlot(entity);
+        long gameTime = time.getGameTimeInMs();
+        if (slot < 0 || stateStore.getFood(slot, gameTime) >= stateStore.getLossThreshold(slot)
+                && getChannelStarvationTime(entity.getComponent(NutrientsComponent.class), gameTime) > gameTime) {
+            return;
+        }
+        long missedIntervals = Math.max(0, gameTime - Math.min(starvingSince, gameTime)) / healthDecreaseInterval;
+        long retroactiveIntervals = Math.min(retroactiveStarvationIntervals, missedIntervals);
+        long admissionTime = gameTime;
+        if (rehydrationSpreadMs > 0) {
+            admissionTime += Math.floorMod(entity.getId() * 0x9E3779B97F4A7C15L, (long) rehydrationSpreadMs);
+        }
+        long firstOwedTime = admissionTime - retroactiveIntervals * healthDecreaseInterval;
+        stateStore.setDamageTime(slot, firstOwedTime);
+        stateStore.setStarvationStart(slot, firstOwedTime);
+        starvationSchedule.schedule(entity, admissionTime);
+    }
+
+    /**
+     * Stops tracking the hunger of an entity that died, lost its hunger or is unloaded.
+     *
+     * @param event The BeforeDeactivateComponent event.
+     * @param entity The entity which is no longer subject to hunger.
+     */
+    @ReceiveEvent(components = {HungerComponent.class, AliveCharacterComponent.class})
+    public void onHungerDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        starvationSchedule.remove(entity);
+        stateStore.remove(entity);
+        hungryEntityIndex.remove(entity);
+        pendingDecayUpdates.remove(entity);
+    }
+
+    /**
+     * Recalculates the point in time an entity starts starving whenever its hunger changes, e.g. after eating,
+     * respawning or changing the hunger level via commands.
+     *
+     * @param event The OnChangedComponent event.
+     * @param entity The entity whose hunger changed.
+     * @param hunger The entity's hunger configuration.
+     */
+    @ReceiveEvent(components = AliveCharacterComponent.class)
+    public void onHungerChanged(OnChangedComponent event, EntityRef entity, HungerComponent hunger) {
+        updateStarvation(entity, hunger);
+    }
+
+    /**
+     * Recalculates the point in time a hungry entity starts starving when it gains nutrient channels.
+     *
+     * @param event The OnActivatedComponent event.
+     * @param entity The entity whose channels were activated.
+     * @param hunger The entity's hunger configuration.
+     */
+    @ReceiveEvent(components = {NutrientsComponent.class, AliveCharacterComponent.class})
+    public void onNutrientsActivated(OnActivatedComponent event, EntityRef entity, HungerComponent hunger) {
+        // Entities which are not tracked yet are scheduled when their hunger is activated.
+        if (stateStore.getSlot(entity) >= 0) {
+            updateStarvation(entity, hunger);
+        }
+    }
+
+    /**
+     * Recalculates the point in time a hungry entity starts starving when its nutrient channels change. Channels
+     * should be changed with a {@link ChangeNutrientEvent}, so the damage owed up to the change is dealt according to
+     * the channels from before it.
+     *
+     * @param event The OnChangedComponent event.
+     * @param entity The entity whose channels changed.
+     * @param hunger The entity's hunger configuration.
+     */
+    @ReceiveEvent(components = {NutrientsComponent.class, AliveCharacterComponent.class})
+    public void onNutrientsChanged(OnChangedComponent event, EntityRef entity, HungerComponent hunger) {
+        if (stateStore.getSlot(entity) >= 0) {
+            updateStarvation(entity, hunger);
+        }
+    }
+
+    /**
+     * Updates the state store and the schedule after the hunger or the nutrient channels of an entity changed. As
+     * lifecycle events are received for any of the listed components, this may run several times for one change.
+     */
+    private void updateStarvation(EntityRef entity, HungerComponent hunger) {
+        // The state store still holds the hunger from before the change.
+        if (!settleOwedDamage(entity)) {
+            return;
+        }
+        int slot = stateStore.getSlot(entity);
+        if (slot >= 0 && stateStore.getBaseDecayPerSecond(slot) == hunger.foodDecayPerSecond) {
+            // The cached food decay is still valid.
+            stateStore.put(entity, hunger);
+            scheduleStarvation(entity, hunger);
+        } else {
+            updateFoodDecay(entity, hunger);
+        }
+    }
+
+    /**
+     * Marks the food decay of an entity for recalculation after a system changed the way it modifies it.
+     *
+     * @param event The HungerDecayChangedEvent.
+     * @param entity The entity whose food decay modifications changed.
+     * @param hunger The entity's hunger configuration.
+     */
+    @ReceiveEvent(components = AliveCharacterComponent.class)
+    public void onHungerDecayChanged(HungerDecayChangedEvent event, EntityRef entity, HungerComponent hunger) {
+        pendingDecayUpdates.add(entity);
+    }
+
+    /**
+     * Lets other systems modify the food decay of an entity, caches the result in the entity's hunger component if it
+     * changed and (re)schedules the entity's starvation.
+     */
+    private void updateFoodDecay(EntityRef entity, HungerComponent hunger) {
+        if (!settleOwedDamage(entity)) {
+            return;
+        }
+        statistics.recordEntityChanged();
+        int slot = stateStore.put(entity, hunger);
+        float decayPerSecond = decayModifierRegistry.getFoodDecayPerSecond(entity, hunger, healthDecreaseInterval);
+
+        if (Math.abs(decayPerSecond - HungerUtils.getFoodDecayPerSecond(hunger)) > decayEpsilon) {
+            // Rebase the food level so that the new decay only applies from now on. Saving the component will
+            // trigger another update, which then schedules the starvation.
+            stateStore.rebase(slot, time.getGameTimeInMs(), decayPerSecond);
+            stateStore.writeTo(slot, hunger);
+            entity.saveComponent(hunger);
+            statistics.recordComponentSave();
+            statistics.checkFoodLevel(hunger);
+        } else {
+            scheduleStarvation(entity, hunger);
+        }
+    }
+
+    private void scheduleStarvation(EntityRef entity, HungerComponent hunger) {
+        hungryEntityIndex.update(entity,
+                HungerUtils.getTimeBelow(hunger, hunger.healthLossThreshold, hunger.lastCalculationTime),
+                hunger.lastCalculatedFood);
+        int slot = stateStore.getSlot(entity);
+        long gameTime = time.getGameTimeInMs();
+        long starvationTime = Math.min(HungerUtils.getTimeBelow(hunger, hunger.healthLossThreshold, gameTime),
+                getChannelStarvationTime(entity.getComponent(NutrientsComponent.class), gameTime));
+        if (starvationTime > gameTime) {
+            stateStore.setDamageTime(slot, HungerStateStore.NO_DAMAGE_TIME);
+            starvationSchedule.schedule(entity, starvationTime);
+        } else if (stateStore.getDamageTime(slot) == HungerStateStore.NO_DAMAGE_TIME
+                || starvationSchedule.getScheduledTime(entity) == StarvationSchedule.NEVER) {
+            starvationSchedule.schedule(entity, gameTime);
+        }
+        // Otherwise the entity is starving already, keep its damage rhythm.
+    }
+
+    /**
+     * Changes the level of a nutrient channel of an entity, after dealing the starvation damage it owes up to now.
+     *
+     * @param event The ChangeNutrientEvent, naming the channel and the amount to add.
+     * @param entity The entity whose channel to change.
+     * @param nutrients The entity's nutrient channels.
+     */
+    @ReceiveEvent
+    public void onChangeNutrient(ChangeNutrientEvent event, EntityRef entity, NutrientsComponent nutrients) {
+        NutrientChannel channel = HungerUtils.getChannel(nutrients, event.getName());
+        if (channel == null || !settleOwedDamage(entity)) {
+            return;
+        }
+        long gameTime = time.getGameTimeInMs();
+        float level = HungerUtils.getLevel(channel, gameTime) + event.getAmount();
+        channel.lastCalculatedValue = Math.max(0, Math.min(channel.maxCapacity, level));
+        channel.lastCalculationTime = gameTime;
+        entity.saveComponent(nutrients);
+        statistics.recordComponentSave();
     }
 
     /**
@@ -146,12 +850,33 @@ public class HungerAuthoritySystem extends BaseComponentSystem {
     @ReceiveEvent
     public void beforeBaseRegen(BeforeRegenEvent event, EntityRef entity, HungerComponent hunger) {
         if (event.getId().equals(BASE_REGEN)) {
-            if (HungerUtils.getHungerForEntity(entity) < hunger.healthStopRegenThreshold) {
+            if (hungerService.getHunger(hunger) < hunger.healthStopRegenThreshold) {
                 event.consume();
             }
         }
     }
 
+    /**
+     * Cancels the base regeneration for a hungry entity while any of its nutrient channels is below its stop regen
+     * threshold.
+     *
+     * @param event The collector event for regeneration actions.
+     * @param entity The entity whose health is about to be regenerated.
+     * @param nutrients The entity's nutrient channels.
+     */
+    @ReceiveEvent(components = HungerComponent.class)
+    public void beforeBaseRegenByNutrients(BeforeRegenEvent event, EntityRef entity, NutrientsComponent nutrients) {
+        if (event.getId().equals(BASE_REGEN)) {
+            long gameTime = time.getGameTimeInMs();
+            for (NutrientChannel channel : nutrients.channels) {
+                if (HungerUtils.getLevel(channel, gameTime) < channel.healthStopRegenThreshold) {
+                    event.consume();
+                    return;
+                }
+            }
+        }
+    }
+
     /**
      * Set's the players hunger to a maximum when spawning. Set's the last calculation time to the current game time.
      *
@@ -179,9 +904,30 @@ public class HungerAuthoritySystem extends BaseComponentSystem {
     }
 
     private void resetHunger(EntityRef player, HungerComponent hunger) {
-        hunger.lastCalculatedFood = hunger.maxFoodCapacity;
-        hunger.lastCalculationTime = time.getGameTimeInMs();
-        player.saveComponent(hunger);
+        // A spawned player is admitted with the hunger of its prefab, and a respawned one with the hunger it died with,
+        // so it may have been admitted as starving. It is not owed any damage for that.
+        int slot = stateStore.getSlot(player);
+        if (slot >= 0) {
+            stateStore.setDamageTime(slot, HungerStateStore.NO_DAMAGE_TIME);
+            stateStore.setStarvationStart(slot, HungerStateStore.NO_DAMAGE_TIME);
+            starvationSchedule.remove(player);
+        }
+        // The channels are filled first, so the saved hunger schedules the player according to them.
+        NutrientsComponent nutrients = player.getComponent(NutrientsComponent.class);
+        if (nutrients != null) {
+            long gameTime = time.getGameTimeInMs();
+            for (NutrientChannel channel : nutrients.channels) {
+                channel.lastCalculatedValue = channel.maxCapacity;
+                channel.lastCalculationTime = gameTime;
+            }
+            player.saveComponent(nutrients);
+            statistics.recordComponentSave();
+        }
+        if (HungerUtils.setHunger(hunger, hunger.maxFoodCapacity, time.getGameTimeInMs(), foodEpsilon)) {
+            player.saveComponent(hunger);
+            statistics.recordComponentSave();
+            statistics.checkFoodLevel(hunger);
+        }
     }
 
     /**
@@ -193,44 +939,109 @@ public class HungerAuthoritySystem extends BaseComponentSystem {
      */
     @ReceiveEvent
     public void foodConsumed(ActivateEvent event, EntityRef item, FoodComponent food) {
-        float filling = food.filling.getValue();
         EntityRef instigator = event.getInstigator();
         HungerComponent hunger = instigator.getComponent(HungerComponent.class);
         if (hunger != null) {
-            hunger.lastCalculatedFood = Math.min(hunger.maxFoodCapacity,
-                    HungerUtils.getHungerForEntity(instigator) + filling);
-            hunger.lastCalculationTime = time.getGameTimeInMs();
-            instigator.saveComponent(hunger);
-            item.send(new FoodConsumedEvent(event));
-
-            if (destroyDrink) {
+            FoodConsumedEvent foodConsumedEvent = eat(instigator, hunger, item, food, -1, 1, event.getTarget());
+            if (foodConsumedEvent.isItemRemoved()) {
+                // The item is gone, so no other system should act on its activation.
                 event.consume();
-                destroyDrink = false;
             }
         }
     }
 
     /**
-     * This method deals with removal of food item after it is consumed.
+     * Lets an entity eat a number of items of a food stack in its inventory at once.
+     *
+     * @param event The ConsumeFoodEvent, naming the food item, the slot holding it and how many of it to eat.
+     * @param eater The entity which is eating.
+     * @param hunger The entity's hunger configuration.
+     */
+    @ReceiveEvent
+    public void onConsumeFood(ConsumeFoodEvent event, EntityRef eater, HungerComponent hunger) {
+        EntityRef item = event.getItem();
+        FoodComponent food = item.getComponent(FoodComponent.class);
+        if (food == null || event.getCount() <= 0) {
+            return;
+        }
+        int count = event.getCount();
+        ItemComponent itemComp = item.getComponent(ItemComponent.class);
+        if (itemComp != null && itemComp.consumedOnUse) {
+            // Food which is used up can only be eaten from the eater's own inventory.
+            if (!isHeldBy(eater, item, event.getSlot())) {
+                return;
+            }
+            count = Math.min(count, itemComp.stackCount);
+        }
+        eat(eater, hunger, item, food, event.getSlot(), count, eater);
+    }
+
+    /**
+     * Lets the item be removed and adds the filling of the eaten items, reduced by their freshness, to the eater's
+     * hunger in a single update. Food which is consumed on use only fills the eater if it could be removed from the
+     * eater's inventory.
+     *
+     * @return The event sent to the item, telling whether the item has been removed.
+     */
+    private FoodConsumedEvent eat(EntityRef eater, HungerComponent hunger, EntityRef item, FoodComponent food,
+                                  int slot, int count, EntityRef target) {
+        long gameTime = time.getGameTimeInMs();
+        // Evaluated up front, as the item is destroyed when it is removed.
+        float filling = HungerUtils.getFilling(item, food, gameTime) * count;
+        ItemComponent itemComp = item.getComponent(ItemComponent.class);
+        boolean consumedOnUse = itemComp != null && itemComp.consumedOnUse;
+
+        FoodConsumedEvent foodConsumedEvent = new FoodConsumedEvent(eater, target, slot, count);
+        item.send(foodConsumedEvent);
+        if (consumedOnUse && !foodConsumedEvent.isItemRemoved()) {
+            return foodConsumedEvent;
+        }
+
+        float newFood = Math.min(hunger.maxFoodCapacity, HungerUtils.getHunger(hunger, gameTime) + filling);
+        if (HungerUtils.setHunger(hunger, newFood, gameTime, foodEpsilon)) {
+            eater.saveComponent(hunger);
+            statistics.recordComponentSave();
+            statistics.checkFoodLevel(hunger);
+        }
+        statistics.recordFoodConsumption();
+        return foodConsumedEvent;
+    }
+
+    /**
+     * This method deals with removal of food item after it is consumed. The item is only removed from the inventory
+     * of the entity which ate it.
      *
      * @param event The FoodConsumedEvent called when an entity consumes food.
      * @param item The entity which is consuming the food.
+     * @param itemComp The item's configuration.
      */
     @Priority(EventPriority.PRIORITY_TRIVIAL)
-    @ReceiveEvent(components = ItemComponent.class)
-    public void usedItem(FoodConsumedEvent event, EntityRef item) {
-        ItemComponent itemComp = item.getComponent(ItemComponent.class);
-        if (itemComp.consumedOnUse) {
-            int slot = InventoryUtils.getSlotWithItem(event.getInstigator(), item);
-            destroyDrink = false;
+    @ReceiveEvent
+    public void usedItem(FoodConsumedEvent event, EntityRef item, ItemComponent itemComp) {
+        if (!itemComp.consumedOnUse || event.isItemRemoved()) {
+            return;
+        }
+        EntityRef eater = event.getInstigator();
+        if (!isHeldBy(eater, item, event.getSlot()) || itemComp.stackCount < event.getCount()) {
+            return;
+        }
+        int stackCount = itemComp.stackCount;
+        inventoryManager.removeItem(eater, eater, item, true, event.getCount());
+        // Destroyed items are not returned by removeItem, so whether they were removed is told by what is left.
+        ItemComponent remaining = item.getComponent(ItemComponent.class);
+        if (!item.exists() || remaining == null || remaining.stackCount <= stackCount - event.getCount()) {
+            event.setItemRemoved(true);
+        }
+    }
 
-            if (itemComp.baseDamage != Integer.MIN_VALUE) {
-                itemComp.baseDamage = Integer.MIN_VALUE;
-            } else {
-                destroyDrink = true;
-                itemComp.baseDamage = 1;
-                inventoryManager.removeItem(event.getInstigator(), event.getInstigator(), item, true, 1);
-            }
+    /**
+     * Tells whether an item is in an entity's inventory without searching the inventory: through the given slot if it
+     * is known, otherwise through the owner of the item, which is the entity holding it.
+     */
+    private static boolean isHeldBy(EntityRef entity, EntityRef item, int slot) {
+        if (slot >= 0) {
+            return slot < InventoryUtils.getSlotCount(entity) && InventoryUtils.getItemAt(entity, slot).equals(item);
         }
+        return item.getOwner().equals(entity);
     }
 }
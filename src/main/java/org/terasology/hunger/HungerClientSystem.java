@@ -18,16 +18,37 @@ package org.terasology.hunger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
+import org.terasology.engine.entitySystem.entity.lifecycleEvents.OnChangedComponent;
 import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
 import org.terasology.engine.entitySystem.systems.RegisterMode;
 import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.players.LocalPlayer;
+import org.terasology.engine.network.ClientComponent;
 import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
 import org.terasology.engine.rendering.nui.NUIManager;
+import org.terasology.gestalt.entitysystem.event.ReceiveEvent;
+import org.terasology.hunger.component.HungerComponent;
+import org.terasology.hunger.component.NutrientChannel;
+import org.terasology.hunger.component.NutrientsComponent;
+import org.terasology.nui.UITextureRegion;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Handles client-side functionality for Hunger features.
+ * <p>
+ * Keeps a snapshot of the local character's hunger and nutrient channels, which is refreshed when their components or
+ * the character change. The HUD reads the snapshot instead of looking up the character and its components every
+ * frame. Other systems, e.g. integrations with optional modules, can show further vitals after these through
+ * {@link #addVital(Vital)}.
  */
 @RegisterSystem(RegisterMode.CLIENT)
+@Share(HungerClientSystem.class)
 public class HungerClientSystem extends BaseComponentSystem {
     /**
      * The logger for debugging to the log files.
@@ -40,6 +61,26 @@ public class HungerClientSystem extends BaseComponentSystem {
     @In
     private Time time;
 
+    @In
+    private LocalPlayer localPlayer;
+
+    private EntityRef character = EntityRef.NULL;
+    private boolean hasHunger;
+    private float maxFood;
+    private float lastFood;
+    private long lastTime;
+    private float decayPerSecond;
+
+    private int channelCount;
+    private float[] channelMax = new float[0];
+    private float[] channelLast = new float[0];
+    private long[] channelTime = new long[0];
+    private float[] channelDecay = new float[0];
+    private UITextureRegion[] channelIcon = new UITextureRegion[0];
+    private UITextureRegion[] channelBarTexture = new UITextureRegion[0];
+
+    private final List<Vital> vitals = new ArrayList<>();
+
     /**
      * Adds the hunger bar to the player's HUD.
      */
@@ -47,4 +88,231 @@ public class HungerClientSystem extends BaseComponentSystem {
     public void preBegin() {
         nuiManager.getHUD().addHUDElement("Hunger:Hunger");
     }
+
+    @Override
+    public void postBegin() {
+        refreshCharacter();
+    }
+
+    /**
+     * @return Whether the local character is subject to hunger.
+     */
+    public boolean isLocalHungerAvailable() {
+        return hasHunger;
+    }
+
+    /**
+     * @return The current food level of the local character relative to its maximum, between 0 and 1.
+     */
+    public float getLocalFoodFraction() {
+        if (!hasHunger || maxFood <= 0) {
+            return 0;
+        }
+        float food = Math.max(0, lastFood - decayPerSecond * (time.getGameTimeInMs() - lastTime) / 1000f);
+        return Math.min(1, food / maxFood);
+    }
+
+    /**
+     * Shows a further vital of the local character in the HUD, after its hunger and nutrient channels.
+     */
+    public void addVital(Vital vital) {
+        vitals.add(vital);
+    }
+
+    public void removeVital(Vital vital) {
+        vitals.remove(vital);
+    }
+
+    /**
+     * @return The number of vitals of the local character shown in the HUD: its hunger, if it is subject to hunger,
+     *         followed by its nutrient channels and the available vitals added by other systems.
+     */
+    public int getLocalVitalCount() {
+        int count = (hasHunger ? 1 : 0) + channelCount;
+        for (int i = 0; i < vitals.size(); i++) {
+            if (vitals.get(i).isAvailable()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param index The index of the vital, between 0 and {@link #getLocalVitalCount()}.
+     * @return The current level of the vital relative to its maximum, between 0 and 1.
+     */
+    public float getLocalVitalFraction(int index) {
+        if (hasHunger) {
+            if (index == 0) {
+                return getLocalFoodFraction();
+            }
+            index--;
+        }
+        if (index >= channelCount) {
+            return getVital(index - channelCount).getFraction();
+        }
+        if (channelMax[index] <= 0) {
+            return 0;
+        }
+        float level = HungerUtils.getLevel(channelLast[index], channelTime[index], channelDecay[index],
+                time.getGameTimeInMs());
+        return Math.min(1, level / channelMax[index]);
+    }
+
+    /**
+     * @param index The index of the vital, between 0 and {@link #getLocalVitalCount()}.
+     * @return The icon of the vital, or null if it uses the default icon, as hunger does.
+     */
+    public UITextureRegion getLocalVitalIcon(int index) {
+        int channel = hasHunger ? index - 1 : index;
+        if (channel >= channelCount) {
+            return getVital(channel - channelCount).getIcon();
+        }
+        return channel >= 0 ? channelIcon[channel] : null;
+    }
+
+    /**
+     * @param index The index of the vital, between 0 and {@link #getLocalVitalCount()}.
+     * @return The texture the bar of the vital is filled with, or null if it uses the default texture, as hunger does.
+     */
+    public UITextureRegion getLocalVitalBarTexture(int index) {
+        int channel = hasHunger ? index - 1 : index;
+        if (channel >= channelCount) {
+            return getVital(channel - channelCount).getBarTexture();
+        }
+        return channel >= 0 ? channelBarTexture[channel] : null;
+    }
+
+    /**
+     * @return The available vital added by other systems with the given index among the available ones.
+     */
+    private Vital getVital(int index) {
+        int available = 0;
+        for (int i = 0; i < vitals.size(); i++) {
+            Vital vital = vitals.get(i);
+            if (vital.isAvailable() && available++ == index) {
+                return vital;
+            }
+        }
+        throw new IndexOutOfBoundsException("No available vital " + index);
+    }
+
+    @ReceiveEvent(components = ClientComponent.class)
+    public void onClientActivated(OnActivatedComponent event, EntityRef client) {
+        refreshCharacter();
+    }
+
+    @ReceiveEvent(components = ClientComponent.class)
+    public void onClientChanged(OnChangedComponent event, EntityRef client) {
+        refreshCharacter();
+    }
+
+    @ReceiveEvent
+    public void onHungerActivated(OnActivatedComponent event, EntityRef entity, HungerComponent hunger) {
+        if (entity.equals(character)) {
+            refreshHunger(hunger);
+        } else if (!hasHunger) {
+            // The character might have been created after the client entity was last changed.
+            refreshCharacter();
+        }
+    }
+
+    @ReceiveEvent
+    public void onHungerChanged(OnChangedComponent event, EntityRef entity, HungerComponent hunger) {
+        if (entity.equals(character)) {
+            refreshHunger(hunger);
+        }
+    }
+
+    @ReceiveEvent(components = HungerComponent.class)
+    public void onHungerDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        if (entity.equals(character)) {
+            hasHunger = false;
+        }
+    }
+
+    @ReceiveEvent
+    public void onNutrientsActivated(OnActivatedComponent event, EntityRef entity, NutrientsComponent nutrients) {
+        if (entity.equals(character)) {
+            refreshNutrients(nutrients);
+        }
+    }
+
+    @ReceiveEvent
+    public void onNutrientsChanged(OnChangedComponent event, EntityRef entity, NutrientsComponent nutrients) {
+        if (entity.equals(character)) {
+            refreshNutrients(nutrients);
+        }
+    }
+
+    @ReceiveEvent(components = NutrientsComponent.class)
+    public void onNutrientsDeactivated(BeforeDeactivateComponent event, EntityRef entity) {
+        if (entity.equals(character)) {
+            channelCount = 0;
+        }
+    }
+
+    private void refreshCharacter() {
+        EntityRef newCharacter = localPlayer.getCharacterEntity();
+        character = newCharacter != null ? newCharacter : EntityRef.NULL;
+        refreshHunger(character.getComponent(HungerComponent.class));
+        refreshNutrients(character.getComponent(NutrientsComponent.class));
+    }
+
+    private void refreshNutrients(NutrientsComponent nutrients) {
+        channelCount = nutrients != null ? nutrients.channels.size() : 0;
+        if (channelCount > channelMax.length) {
+            channelMax = new float[channelCount];
+            channelLast = new float[channelCount];
+            channelTime = new long[channelCount];
+            channelDecay = new float[channelCount];
+            channelIcon = new UITextureRegion[channelCount];
+            channelBarTexture = new UITextureRegion[channelCount];
+        }
+        for (int i = 0; i < channelCount; i++) {
+            NutrientChannel channel = nutrients.channels.get(i);
+            channelMax[i] = channel.maxCapacity;
+            channelLast[i] = channel.lastCalculatedValue;
+            channelTime[i] = channel.lastCalculationTime;
+            channelDecay[i] = channel.decayPerSecond;
+            channelIcon[i] = channel.icon;
+            channelBarTexture[i] = channel.barTexture;
+        }
+    }
+
+    private void refreshHunger(HungerComponent hunger) {
+        hasHunger = hunger != null;
+        if (hasHunger) {
+            maxFood = hunger.maxFoodCapacity;
+            lastFood = hunger.lastCalculatedFood;
+            lastTime = hunger.lastCalculationTime;
+            decayPerSecond = HungerUtils.getFoodDecayPerSecond(hunger);
+        }
+    }
+
+    /**
+     * A vital of the local character which is shown in the HUD together with its hunger, but is kept by another
+     * system. It is read every frame while it is available, so it should be kept as a snapshot as well.
+     */
+    public interface Vital {
+        /**
+         * @return Whether the vital is currently shown.
+         */
+        boolean isAvailable();
+
+        /**
+         * @return The current level of the vital relative to its maximum, between 0 and 1.
+         */
+        float getFraction();
+
+        /**
+         * @return The icon of the vital, or null to use the default icon.
+         */
+        UITextureRegion getIcon();
+
+        /**
+         * @return The texture the bar of the vital is filled with, or null to use the default texture.
+         */
+        UITextureRegion getBarTexture();
+    }
 }
@@ -35,6 +35,12 @@ public class HungerCommands extends BaseComponentSystem {
     @In
     private Time time;
 
+    @In
+    private HungerService hungerService;
+
+    @In
+    private HungerStatistics statistics;
+
     /**
      * A command for testing the hunger level for an entity.
      *
@@ -46,12 +52,52 @@ public class HungerCommands extends BaseComponentSystem {
         EntityRef character = client.getComponent(ClientComponent.class).character;
         if (character.hasComponent(HungerComponent.class)) {
             HungerComponent hunger = character.getComponent(HungerComponent.class);
-            return "Current Food Level: " + HungerUtils.getHungerForEntity(character) + "/" + hunger.maxFoodCapacity;
+            return "Current Food Level: " + hungerService.getHunger(hunger) + "/" + hunger.maxFoodCapacity;
         } else {
             return "You don't have a hunger level.";
         }
     }
 
+    /**
+     * A command for inspecting what the hunger systems do on the server.
+     *
+     * @param action One of "show", "json", "start", "stop", "reset" or "log". Defaults to "show".
+     * @param seconds For "log", the interval in seconds at which the statistics are written to the server log, or 0
+     *         to stop logging.
+     * @return Returns the current statistics or a message confirming the action.
+     */
+    @Command(shortDescription = "Records and shows hunger performance statistics.", runOnServer = true,
+            requiredPermission = PermissionManager.CHEAT_PERMISSION)
+    public String hungerStats(@CommandParam(value = "Action", required = false) String action,
+                              @CommandParam(value = "Seconds", required = false) Integer seconds) {
+        if (statistics == null) {
+            return "Hunger statistics are not available.";
+        }
+        if (action == null || action.equals("show")) {
+            return statistics.getSummary();
+        }
+        switch (action) {
+            case "json":
+                return statistics.getMachineSummary();
+            case "start":
+                statistics.setEnabled(true);
+                return "Started recording hunger statistics.";
+            case "stop":
+                statistics.setEnabled(false);
+                return "Stopped recording hunger statistics.";
+            case "reset":
+                statistics.reset();
+                return "Hunger statistics reset.";
+            case "log":
+                int interval = seconds != null ? seconds : 0;
+                statistics.setLogInterval(interval);
+                return interval > 0 ? "Logging hunger statistics every " + interval + " seconds."
+                        : "Stopped logging hunger statistics.";
+            default:
+                return "Unknown action: " + action + ". Use show, json, start, stop, reset or log.";
+        }
+    }
+
     /**
      * A command for modifying your hunger level.
      *
@@ -66,21 +112,16 @@ public class HungerCommands extends BaseComponentSystem {
             return "You don't have a hunger level.";
         }
         HungerComponent hunger = character.getComponent(HungerComponent.class);
+        long gameTime = time.getGameTimeInMs();
         if (newFood < 0) {
-            hunger.lastCalculatedFood = 0;
-            hunger.lastCalculationTime = time.getGameTimeInMs();
-            character.saveComponent(hunger);
+            saveHunger(character, hunger, 0, gameTime);
             return "Food level cannot be below 0. Setting to 0.";
         }
         if (newFood > hunger.maxFoodCapacity) {
-            hunger.lastCalculatedFood = hunger.maxFoodCapacity;
-            hunger.lastCalculationTime = time.getGameTimeInMs();
-            character.saveComponent(hunger);
+            saveHunger(character, hunger, hunger.maxFoodCapacity, gameTime);
             return "Food level cannot be above Max Food Capacity. Setting to Max(" + hunger.maxFoodCapacity + ")";
         }
-        hunger.lastCalculatedFood = newFood;
-        hunger.lastCalculationTime = time.getGameTimeInMs();
-        character.saveComponent(hunger);
+        saveHunger(character, hunger, newFood, gameTime);
         return "Food level successfully set to: " + newFood;
     }
 
@@ -108,4 +149,14 @@ public class HungerCommands extends BaseComponentSystem {
         character.saveComponent(hunger);
         return "Max Food Level successfully set to: " + newMax;
     }
+
+    private void saveHunger(EntityRef character, HungerComponent hunger, float food, long gameTime) {
+        if (HungerUtils.setHunger(hunger, food, gameTime, HungerUtils.DEFAULT_FOOD_EPSILON)) {
+            character.saveComponent(hunger);
+            if (statistics != null) {
+                statistics.recordComponentSave();
+                statistics.checkFoodLevel(hunger);
+            }
+        }
+    }
 }
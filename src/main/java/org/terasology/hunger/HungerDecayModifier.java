@@ -0,0 +1,23 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.hunger.component.HungerComponent;
+import org.terasology.hunger.event.AffectHungerEvent;
+
+/**
+ * Contributes to the food decay of hungry entities. Modifiers are registered with the
+ * {@link HungerDecayModifierRegistry} and only asked again once they signal a change through it.
+ */
+@FunctionalInterface
+public interface HungerDecayModifier {
+    /**
+     * Modifies the food decay of an entity.
+     *
+     * @param entity The entity whose food decay is calculated.
+     * @param hunger The entity's hunger configuration.
+     * @param decay Collects the modifications, its base value is the food lost per hunger damage interval.
+     */
+    void modifyDecay(EntityRef entity, HungerComponent hunger, AffectHungerEvent decay);
+}
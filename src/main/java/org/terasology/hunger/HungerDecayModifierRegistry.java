@@ -0,0 +1,102 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.engine.entitySystem.entity.EntityManager;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.hunger.component.HungerComponent;
+import org.terasology.hunger.event.AffectHungerEvent;
+import org.terasology.hunger.event.HungerDecayChangedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the {@link HungerDecayModifier}s other systems contribute and calculates the resulting food decay of an
+ * entity. The result is cached in the entity's hunger component until a modifier signals a change.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(HungerDecayModifierRegistry.class)
+public class HungerDecayModifierRegistry extends BaseComponentSystem {
+    @In
+    private EntityManager entityManager;
+
+    @In
+    private HungerStatistics statistics;
+
+    /**
+     * Whether an {@link AffectHungerEvent} is sent to the entity after applying the registered modifiers, for systems
+     * which still modify hunger decay through the event.
+     */
+    public boolean sendAffectHungerEvent = true;
+
+    private final List<HungerDecayModifier> modifiers = new ArrayList<>();
+
+    /**
+     * Registers a modifier and recalculates the food decay of all hungry entities.
+     */
+    public void register(HungerDecayModifier modifier) {
+        modifiers.add(modifier);
+        invalidateAll();
+    }
+
+    /**
+     * Removes a modifier and recalculates the food decay of all hungry entities.
+     */
+    public void unregister(HungerDecayModifier modifier) {
+        if (modifiers.remove(modifier)) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Signals that the modification of the food decay of an entity changed, e.g. because a buff was added or removed.
+     */
+    public void invalidate(EntityRef entity) {
+        entity.send(new HungerDecayChangedEvent());
+    }
+
+    /**
+     * Signals that the modification of the food decay of all hungry entities changed.
+     */
+    public void invalidateAll() {
+        for (EntityRef entity : entityManager.getEntitiesWith(HungerComponent.class)) {
+            invalidate(entity);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        modifiers.clear();
+    }
+
+    /**
+     * Calculates the food decay of an entity, including all modifications.
+     *
+     * @param entity The entity whose food decay is calculated.
+     * @param hunger The entity's hunger configuration.
+     * @param interval The hunger damage interval in ms the modifications are based on.
+     * @return The food lost per second, at least 0.
+     */
+    public float getFoodDecayPerSecond(EntityRef entity, HungerComponent hunger, int interval) {
+        if (modifiers.isEmpty() && !sendAffectHungerEvent) {
+            return Math.max(0, hunger.foodDecayPerSecond);
+        }
+        final float expectedDecay = (interval * hunger.foodDecayPerSecond) / 1000;
+        AffectHungerEvent decay = new AffectHungerEvent(expectedDecay);
+        for (HungerDecayModifier modifier : modifiers) {
+            modifier.modifyDecay(entity, hunger, decay);
+        }
+        if (sendAffectHungerEvent) {
+            // Send event to allow for other systems to modify hunger decay.
+            entity.send(decay);
+            statistics.recordAffectHungerEvent();
+        }
+        return Math.max(0, decay.getResultValue()) * 1000 / interval;
+    }
+}
@@ -0,0 +1,137 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.hunger.component.FoodComponent;
+import org.terasology.hunger.component.HungerComponent;
+import org.terasology.hunger.component.NutrientChannel;
+import org.terasology.hunger.component.NutrientsComponent;
+import org.terasology.hunger.component.SpoilageComponent;
+
+/**
+ * Provides the hunger level of entities to other systems. Unlike {@link HungerUtils#getHungerForEntity(EntityRef)}
+ * it does not look up the current time from the registry on every call and allows querying many entities at once.
+ * <p>
+ * All queries evaluate hunger at the current game time, which only advances between frames, so the results of all
+ * queries made within a frame are consistent with each other.
+ */
+@RegisterSystem
+@Share(HungerService.class)
+public class HungerService extends BaseComponentSystem {
+    @In
+    private Time time;
+
+    /**
+     * @return The game time in ms at which all hunger queries of this frame are evaluated.
+     */
+    public long getGameTime() {
+        return time.getGameTimeInMs();
+    }
+
+    /**
+     * Get the current hunger level of an entity.
+     *
+     * @param entity The entity to get the hunger level of.
+     * @return The hunger level, or 0 if the entity is not subject to hunger.
+     */
+    public float getHunger(EntityRef entity) {
+        HungerComponent hunger = entity.getComponent(HungerComponent.class);
+        if (hunger == null) {
+            return 0;
+        }
+        return HungerUtils.getHunger(hunger, time.getGameTimeInMs());
+    }
+
+    /**
+     * Get the current hunger level described by a hunger component.
+     *
+     * @param hunger The hunger component to evaluate.
+     * @return The hunger level.
+     */
+    public float getHunger(HungerComponent hunger) {
+        return HungerUtils.getHunger(hunger, time.getGameTimeInMs());
+    }
+
+    /**
+     * Get the current hunger level of many entities at once.
+     *
+     * @param entities The entities to get the hunger level of.
+     * @param out The array to write the hunger levels into, in iteration order of the entities. Entities which are
+     *         not subject to hunger get a hunger level of 0.
+     * @return The number of hunger levels written.
+     */
+    public int getHunger(Iterable<EntityRef> entities, float[] out) {
+        long gameTime = time.getGameTimeInMs();
+        int count = 0;
+        for (EntityRef entity : entities) {
+            HungerComponent hunger = entity.getComponent(HungerComponent.class);
+            out[count++] = hunger != null ? HungerUtils.getHunger(hunger, gameTime) : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Get the time until the hunger level of an entity drops below a given food level.
+     *
+     * @param entity The entity to check.
+     * @param food The food level to check for.
+     * @return The time in ms, 0 if the hunger level already is below the food level, or {@code Long.MAX_VALUE} if it
+     *         never will be or the entity is not subject to hunger.
+     */
+    public long getTimeUntilBelow(EntityRef entity, float food) {
+        HungerComponent hunger = entity.getComponent(HungerComponent.class);
+        if (hunger == null) {
+            return Long.MAX_VALUE;
+        }
+        long gameTime = time.getGameTimeInMs();
+        long belowTime = HungerUtils.getTimeBelow(hunger, food, gameTime);
+        return belowTime == Long.MAX_VALUE ? Long.MAX_VALUE : belowTime - gameTime;
+    }
+
+    /**
+     * Get the current level of a nutrient channel of an entity.
+     *
+     * @param entity The entity to get the level of.
+     * @param name The name of the channel, e.g. "thirst".
+     * @return The level, or 0 if the entity has no channel of that name.
+     */
+    public float getNutrient(EntityRef entity, String name) {
+        NutrientsComponent nutrients = entity.getComponent(NutrientsComponent.class);
+        NutrientChannel channel = nutrients != null ? HungerUtils.getChannel(nutrients, name) : null;
+        if (channel == null) {
+            return 0;
+        }
+        return HungerUtils.getLevel(channel, time.getGameTimeInMs());
+    }
+
+    /**
+     * Get the current freshness of a food item.
+     *
+     * @param item The item to get the freshness of.
+     * @return The freshness from 1 (fresh) to 0 (spoiled), or 1 if the item does not spoil.
+     */
+    public float getFreshness(EntityRef item) {
+        SpoilageComponent spoilage = item.getComponent(SpoilageComponent.class);
+        return spoilage != null ? HungerUtils.getFreshness(spoilage, time.getGameTimeInMs()) : 1;
+    }
+
+    /**
+     * Get how much eating a food item currently restores, taking its freshness into account.
+     *
+     * @param item The food item.
+     * @return The filling of a single item, or 0 if the item is not food.
+     */
+    public float getFilling(EntityRef item) {
+        FoodComponent food = item.getComponent(FoodComponent.class);
+        if (food == null || food.filling == null) {
+            return 0;
+        }
+        return HungerUtils.getFilling(item, food, time.getGameTimeInMs());
+    }
+}
@@ -0,0 +1,236 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import gnu.trove.map.hash.TLongIntHashMap;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.hunger.component.HungerComponent;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A dense copy of the hunger state of all tracked entities, stored as primitive arrays indexed by a slot number and
+ * keyed by entity id.
+ * <p>
+ * The store mirrors what has been saved to the {@link HungerComponent}s and allows evaluating the hunger of many
+ * entities in a single loop without going through the entity system. Slots are compacted on removal, so they are only
+ * stable until the next call to {@link #remove(EntityRef)}.
+ */
+final class HungerStateStore {
+    /**
+     * Damage time of entities which are not starving.
+     */
+    static final long NO_DAMAGE_TIME = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * The number of slots evaluated by a single task when evaluating in parallel.
+     */
+    private static final int PARTITION_SIZE = 1024;
+
+    private final TLongIntHashMap slots = new TLongIntHashMap(INITIAL_CAPACITY, 0.5f, -1, -1);
+
+    private EntityRef[] entities = new EntityRef[INITIAL_CAPACITY];
+    private float[] baseDecayPerSecond = new float[INITIAL_CAPACITY];
+    private float[] lossThreshold = new float[INITIAL_CAPACITY];
+    private int[] damageAmount = new int[INITIAL_CAPACITY];
+    private float[] lastFood = new float[INITIAL_CAPACITY];
+    private long[] lastTime = new long[INITIAL_CAPACITY];
+    private float[] decayPerSecond = new float[INITIAL_CAPACITY];
+    private long[] damageTime = new long[INITIAL_CAPACITY];
+    private long[] starvationStart = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Copies the state of a hunger component into the store, adding the entity if it is not tracked yet.
+     *
+     * @param entity The entity the hunger component belongs to.
+     * @param hunger The hunger component of the entity.
+     * @return The slot of the entity.
+     */
+    int put(EntityRef entity, HungerComponent hunger) {
+        int slot = slots.get(entity.getId());
+        if (slot < 0) {
+            ensureCapacity(size + 1);
+            slot = size++;
+            slots.put(entity.getId(), slot);
+            entities[slot] = entity;
+            damageTime[slot] = NO_DAMAGE_TIME;
+        }
+        baseDecayPerSecond[slot] = hunger.foodDecayPerSecond;
+        lossThreshold[slot] = hunger.healthLossThreshold;
+        damageAmount[slot] = hunger.healthDecreaseAmount;
+        lastFood[slot] = hunger.lastCalculatedFood;
+        lastTime[slot] = hunger.lastCalculationTime;
+        decayPerSecond[slot] = HungerUtils.getFoodDecayPerSecond(hunger);
+        return slot;
+    }
+
+    /**
+     * Stops tracking an entity. The entity in the last slot is moved into the freed slot.
+     */
+    void remove(EntityRef entity) {
+        int slot = slots.remove(entity.getId());
+        if (slot < 0) {
+            return;
+        }
+        int last = --size;
+        if (slot != last) {
+            entities[slot] = entities[last];
+            baseDecayPerSecond[slot] = baseDecayPerSecond[last];
+            lossThreshold[slot] = lossThreshold[last];
+            damageAmount[slot] = damageAmount[last];
+            lastFood[slot] = lastFood[last];
+            lastTime[slot] = lastTime[last];
+            decayPerSecond[slot] = decayPerSecond[last];
+            damageTime[slot] = damageTime[last];
+            starvationStart[slot] = starvationStart[last];
+            slots.put(entities[slot].getId(), slot);
+        }
+        entities[last] = null;
+    }
+
+    void clear() {
+        slots.clear();
+        Arrays.fill(entities, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * @return The slot of the entity, or -1 if it is not tracked.
+     */
+    int getSlot(EntityRef entity) {
+        return getSlot(entity.getId());
+    }
+
+    /**
+     * @return The slot of the entity with the given id, or -1 if it is not tracked.
+     */
+    int getSlot(long id) {
+        return slots.get(id);
+    }
+
+    /**
+     * @return The food decay per second configured for the entity, before any modifications.
+     */
+    float getBaseDecayPerSecond(int slot) {
+        return baseDecayPerSecond[slot];
+    }
+
+    float getLossThreshold(int slot) {
+        return lossThreshold[slot];
+    }
+
+    int getDamageAmount(int slot) {
+        return damageAmount[slot];
+    }
+
+    /**
+     * @return The game time in ms at which the next unit of starvation damage is owed, or {@link #NO_DAMAGE_TIME} if
+     *         the entity is not starving.
+     */
+    long getDamageTime(int slot) {
+        return damageTime[slot];
+    }
+
+    void setDamageTime(int slot, long time) {
+        damageTime[slot] = time;
+    }
+
+    /**
+     * @return The game time in ms at which the first unit of starvation damage was owed in the current period of
+     *         starvation. Only valid while {@link #getDamageTime(int)} is set.
+     */
+    long getStarvationStart(int slot) {
+        return starvationStart[slot];
+    }
+
+    void setStarvationStart(int slot, long time) {
+        starvationStart[slot] = time;
+    }
+
+    /**
+     * Evaluates the hunger level of a single slot, equivalent to {@link HungerUtils#getHunger(HungerComponent, long)}.
+     */
+    float getFood(int slot, long gameTime) {
+        return Math.max(0, lastFood[slot] - decayPerSecond[slot] * (gameTime - lastTime[slot]) / 1000f);
+    }
+
+    /**
+     * Calculates when the hunger level of a slot drops below a given level, equivalent to
+     * {@link HungerUtils#getTimeBelow(HungerComponent, float, long)}.
+     */
+    long getTimeBelow(int slot, float food, long gameTime) {
+        return HungerUtils.getTimeBelow(lastFood[slot], lastTime[slot], decayPerSecond[slot], food, gameTime);
+    }
+
+    /**
+     * Evaluates the hunger level of the given slots, each at its own game time.
+     *
+     * @param slots The slots to evaluate.
+     * @param gameTimes The game time in ms to evaluate each slot at.
+     * @param count The number of slots to evaluate.
+     * @param out The array to write the hunger levels into, in the order of the slots.
+     */
+    void evaluate(int[] slots, long[] gameTimes, int count, float[] out) {
+        evaluateRange(slots, gameTimes, 0, count, out);
+    }
+
+    /**
+     * Like {@link #evaluate(int[], long[], int, float[])}, but splits the slots into partitions which are evaluated
+     * on the common fork-join pool. The store must not be modified until this method returns.
+     */
+    void evaluateParallel(int[] slots, long[] gameTimes, int count, float[] out) {
+        int partitions = (count + PARTITION_SIZE - 1) / PARTITION_SIZE;
+        IntStream.range(0, partitions).parallel().forEach(partition -> {
+            int from = partition * PARTITION_SIZE;
+            evaluateRange(slots, gameTimes, from, Math.min(count, from + PARTITION_SIZE), out);
+        });
+    }
+
+    private void evaluateRange(int[] slots, long[] gameTimes, int from, int to, float[] out) {
+        for (int i = from; i < to; i++) {
+            int slot = slots[i];
+            out[i] = Math.max(0, lastFood[slot] - decayPerSecond[slot] * (gameTimes[i] - lastTime[slot]) / 1000f);
+        }
+    }
+
+    /**
+     * Changes the food decay of a slot from the given game time on, keeping the hunger level up to that point.
+     */
+    void rebase(int slot, long gameTime, float newDecayPerSecond) {
+        lastFood[slot] = getFood(slot, gameTime);
+        lastTime[slot] = gameTime;
+        decayPerSecond[slot] = newDecayPerSecond;
+    }
+
+    /**
+     * Writes the food state of a slot back to the hunger component it was last put from. The caller is responsible
+     * for saving the component.
+     */
+    void writeTo(int slot, HungerComponent hunger) {
+        hunger.lastCalculatedFood = lastFood[slot];
+        hunger.lastCalculationTime = lastTime[slot];
+        // An unmodified decay is stored as unset, so it matches the prefab and is left out when saving the entity.
+        hunger.effectiveFoodDecayPerSecond =
+                decayPerSecond[slot] == baseDecayPerSecond[slot] ? -1 : decayPerSecond[slot];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= entities.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, entities.length * 2);
+        entities = Arrays.copyOf(entities, newCapacity);
+        baseDecayPerSecond = Arrays.copyOf(baseDecayPerSecond, newCapacity);
+        lossThreshold = Arrays.copyOf(lossThreshold, newCapacity);
+        damageAmount = Arrays.copyOf(damageAmount, newCapacity);
+        lastFood = Arrays.copyOf(lastFood, newCapacity);
+        lastTime = Arrays.copyOf(lastTime, newCapacity);
+        decayPerSecond = Arrays.copyOf(decayPerSecond, newCapacity);
+        damageTime = Arrays.copyOf(damageTime, newCapacity);
+        starvationStart = Arrays.copyOf(starvationStart, newCapacity);
+    }
+}
@@ -0,0 +1,299 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.registry.Share;
+import org.terasology.hunger.component.HungerComponent;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts what the hunger systems do and how long the hunger damage tick takes. Recording is disabled by default, in
+ * which case every recording method only checks a flag.
+ * <p>
+ * While recording, the hunger systems also check invariants of the hunger state, like food levels within
+ * [0, maxFoodCapacity], and count violations. This makes long running sessions, e.g. soak tests with accelerated
+ * game time, verifiable through {@link #getMachineSummary()}.
+ * <p>
+ * The bytes allocated while recording are only reported if an allocation counter is set, as modules cannot access the
+ * JVM's management interfaces. Tools running the hunger systems, like the soak harness, can set one.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(HungerStatistics.class)
+public class HungerStatistics extends BaseComponentSystem implements UpdateSubscriberSystem {
+    private static final Logger logger = LoggerFactory.getLogger(HungerStatistics.class);
+
+    /**
+     * Tick durations are collected in buckets of powers of two microseconds.
+     */
+    private static final int BUCKETS = 32;
+
+    @In
+    private Time time;
+
+    private boolean enabled;
+    private long logInterval;
+    private long nextLogTime;
+
+    private long ticks;
+    private long entitiesScanned;
+    private long entitiesChanged;
+    private long affectHungerEvents;
+    private long damageEvents;
+    private long componentSaves;
+    private long foodConsumptions;
+    private long invariantViolations;
+    private long recordingStartTime;
+    private long recordedRealTime;
+    private long totalTickNanos;
+    private long maxTickNanos;
+    private final long[] tickHistogram = new long[BUCKETS];
+
+    private LongSupplier allocationCounter;
+    private long recordingStartAllocation;
+    private long recordedAllocation;
+    private long tickStartAllocation;
+    private long tickAllocation;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled == this.enabled) {
+            return;
+        }
+        if (enabled) {
+            recordingStartTime = time.getRealTimeInMs();
+            recordingStartAllocation = getAllocation();
+        } else {
+            recordedRealTime += time.getRealTimeInMs() - recordingStartTime;
+            recordedAllocation += getAllocation() - recordingStartAllocation;
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Sets the counter the allocated bytes are taken from while recording.
+     *
+     * @param counter Returns the total number of bytes allocated so far by the thread running the hunger systems, or
+     *         null to stop reporting allocated bytes.
+     */
+    public void setAllocationCounter(LongSupplier counter) {
+        if (enabled) {
+            recordedAllocation += getAllocation() - recordingStartAllocation;
+        }
+        allocationCounter = counter;
+        recordingStartAllocation = getAllocation();
+    }
+
+    private long getAllocation() {
+        return allocationCounter != null ? allocationCounter.getAsLong() : 0;
+    }
+
+    /**
+     * Sets the interval at which the statistics are written to the log.
+     *
+     * @param seconds The interval in seconds, or 0 to stop logging.
+     */
+    public void setLogInterval(int seconds) {
+        logInterval = Math.max(0, seconds) * 1000L;
+        nextLogTime = time.getRealTimeInMs() + logInterval;
+    }
+
+    @Override
+    public void update(float delta) {
+        if (logInterval > 0 && time.getRealTimeInMs() >= nextLogTime) {
+            nextLogTime = time.getRealTimeInMs() + logInterval;
+            logger.info(getSummary());
+        }
+    }
+
+    /**
+     * @return A timestamp to pass to {@link #endTick(long, int)}, or 0 if recording is disabled.
+     */
+    public long startTick() {
+        if (!enabled) {
+            return 0;
+        }
+        tickStartAllocation = getAllocation();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a hunger damage tick.
+     *
+     * @param start The timestamp returned by {@link #startTick()}.
+     * @param scanned The number of entities visited during the tick.
+     */
+    public void endTick(long start, int scanned) {
+        if (!enabled || start == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        ticks++;
+        entitiesScanned += scanned;
+        totalTickNanos += nanos;
+        maxTickNanos = Math.max(maxTickNanos, nanos);
+        tickHistogram[bucketOf(nanos / 1000)]++;
+        tickAllocation += getAllocation() - tickStartAllocation;
+    }
+
+    public void recordEntityChanged() {
+        if (enabled) {
+            entitiesChanged++;
+        }
+    }
+
+    public void recordAffectHungerEvent() {
+        if (enabled) {
+            affectHungerEvents++;
+        }
+    }
+
+    public void recordDamageEvent() {
+        if (enabled) {
+            damageEvents++;
+        }
+    }
+
+    public void recordComponentSave() {
+        if (enabled) {
+            componentSaves++;
+        }
+    }
+
+    public void recordFoodConsumption() {
+        if (enabled) {
+            foodConsumptions++;
+        }
+    }
+
+    /**
+     * Checks that the food level stored in a hunger component lies within [0, maxFoodCapacity].
+     */
+    public void checkFoodLevel(HungerComponent hunger) {
+        if (enabled && (hunger.lastCalculatedFood < 0 || hunger.lastCalculatedFood > hunger.maxFoodCapacity)) {
+            invariantViolations++;
+            logger.debug("Food level {} outside of [0, {}]", hunger.lastCalculatedFood, hunger.maxFoodCapacity);
+        }
+    }
+
+    /**
+     * Checks that starvation damage is only dealt to entities below their health loss threshold.
+     *
+     * @param food The food level of the entity at the time the damage was due.
+     * @param threshold The health loss threshold of the entity.
+     */
+    public void checkStarvationDamage(float food, float threshold) {
+        if (enabled && food >= threshold) {
+            invariantViolations++;
+            logger.debug("Starvation damage dealt at food level {}, threshold {}", food, threshold);
+        }
+    }
+
+    public void reset() {
+        ticks = 0;
+        entitiesScanned = 0;
+        entitiesChanged = 0;
+        affectHungerEvents = 0;
+        damageEvents = 0;
+        componentSaves = 0;
+        foodConsumptions = 0;
+        invariantViolations = 0;
+        recordingStartTime = time.getRealTimeInMs();
+        recordedRealTime = 0;
+        totalTickNanos = 0;
+        maxTickNanos = 0;
+        Arrays.fill(tickHistogram, 0);
+        recordingStartAllocation = getAllocation();
+        recordedAllocation = 0;
+        tickAllocation = 0;
+    }
+
+    /**
+     * @return A human readable summary of all recorded statistics.
+     */
+    public String getSummary() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Hunger statistics").append(enabled ? "" : " (recording disabled)").append(":\n");
+        builder.append("  ticks: ").append(ticks)
+                .append(", avg: ").append(ticks > 0 ? totalTickNanos / ticks / 1000 : 0).append("us")
+                .append(", p50: <").append(getPercentileMicros(0.5f)).append("us")
+                .append(", p99: <").append(getPercentileMicros(0.99f)).append("us")
+                .append(", max: ").append(maxTickNanos / 1000).append("us\n");
+        builder.append("  entities scanned: ").append(entitiesScanned)
+                .append(", changed: ").append(entitiesChanged).append("\n");
+        builder.append("  AffectHungerEvents: ").append(affectHungerEvents)
+                .append(", DoDamageEvents: ").append(damageEvents).append("\n");
+        builder.append("  component saves: ").append(componentSaves)
+                .append(", food consumptions: ").append(foodConsumptions).append("\n");
+        builder.append("  invariant violations: ").append(invariantViolations);
+        if (allocationCounter != null) {
+            builder.append("\n  allocated: ").append(getAllocatedBytes()).append(" bytes, ")
+                    .append(tickAllocation).append(" of them during ticks");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return All recorded statistics as a single line JSON object, for tools that collect them from the log. The
+     *         allocated bytes are null if no allocation counter is set.
+     */
+    public String getMachineSummary() {
+        long realTime = recordedRealTime + (enabled ? time.getRealTimeInMs() - recordingStartTime : 0);
+        StringBuilder builder = new StringBuilder("{");
+        builder.append("\"ticks\":").append(ticks)
+                .append(",\"ticksPerSecond\":").append(realTime > 0 ? ticks * 1000f / realTime : 0)
+                .append(",\"avgTickMicros\":").append(ticks > 0 ? totalTickNanos / ticks / 1000 : 0)
+                .append(",\"p50TickMicros\":").append(getPercentileMicros(0.5f))
+                .append(",\"p99TickMicros\":").append(getPercentileMicros(0.99f))
+                .append(",\"maxTickMicros\":").append(maxTickNanos / 1000)
+                .append(",\"entitiesScanned\":").append(entitiesScanned)
+                .append(",\"entitiesChanged\":").append(entitiesChanged)
+                .append(",\"affectHungerEvents\":").append(affectHungerEvents)
+                .append(",\"damageEvents\":").append(damageEvents)
+                .append(",\"componentSaves\":").append(componentSaves)
+                .append(",\"foodConsumptions\":").append(foodConsumptions)
+                .append(",\"invariantViolations\":").append(invariantViolations)
+                .append(",\"allocatedBytes\":").append(allocationCounter != null ? getAllocatedBytes() : null)
+                .append(",\"tickAllocatedBytes\":").append(allocationCounter != null ? tickAllocation : null)
+                .append("}");
+        return builder.toString();
+    }
+
+    /**
+     * @return The number of bytes allocated while recording, by the thread the allocation counter is measuring.
+     */
+    private long getAllocatedBytes() {
+        return recordedAllocation + (enabled ? getAllocation() - recordingStartAllocation : 0);
+    }
+
+    /**
+     * @return The upper bound of the histogram bucket containing the given percentile of tick durations.
+     */
+    private long getPercentileMicros(float percentile) {
+        long threshold = (long) Math.ceil(ticks * percentile);
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += tickHistogram[i];
+            if (count >= threshold && count > 0) {
+                return 1L << i;
+            }
+        }
+        return 0;
+    }
+
+    private static int bucketOf(long micros) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+}
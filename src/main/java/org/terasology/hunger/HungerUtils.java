@@ -18,9 +18,18 @@ package org.terasology.hunger;
 import org.terasology.engine.core.Time;
 import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.registry.CoreRegistry;
+import org.terasology.hunger.component.FoodComponent;
 import org.terasology.hunger.component.HungerComponent;
+import org.terasology.hunger.component.NutrientChannel;
+import org.terasology.hunger.component.NutrientsComponent;
+import org.terasology.hunger.component.SpoilageComponent;
 
 public final class HungerUtils {
+    /**
+     * The default difference in food level below which a change is not considered worth saving.
+     */
+    public static final float DEFAULT_FOOD_EPSILON = 0.001f;
+
     private HungerUtils() {
     }
 
@@ -36,9 +45,170 @@ public final class HungerUtils {
             return 0;
         }
 
-        long gameTime = CoreRegistry.get(Time.class).getGameTimeInMs();
-        float foodDecay = hunger.foodDecayPerSecond * (gameTime - hunger.lastCalculationTime) / 1000f;
-        return Math.max(0, hunger.lastCalculatedFood - foodDecay);
+        return getHunger(hunger, CoreRegistry.get(Time.class).getGameTimeInMs());
+    }
+
+    /**
+     * Get the hunger level described by a hunger component at a given point in game time.
+     *
+     * @param hunger - The hunger component to evaluate.
+     * @param gameTime - The game time in ms to evaluate the hunger level at.
+     * @return The hunger level at the given time as a float.
+     */
+    public static float getHunger(HungerComponent hunger, long gameTime) {
+        return getLevel(hunger.lastCalculatedFood, hunger.lastCalculationTime, getFoodDecayPerSecond(hunger), gameTime);
+    }
+
+    /**
+     * Get the freshness of a food item at a given point in game time.
+     *
+     * @param spoilage - The spoilage component of the item.
+     * @param gameTime - The game time in ms to evaluate the freshness at.
+     * @return The freshness from 1 (fresh) to 0 (spoiled).
+     */
+    public static float getFreshness(SpoilageComponent spoilage, long gameTime) {
+        if (spoilage.lastCalculationTime < 0) {
+            return spoilage.lastCalculatedFreshness;
+        }
+        return getLevel(spoilage.lastCalculatedFreshness, spoilage.lastCalculationTime,
+                spoilage.freshnessDecayPerSecond, gameTime);
+    }
+
+    /**
+     * Get how much a food item restores at a given point in game time, taking its freshness into account.
+     *
+     * @param item - The food item.
+     * @param food - The food component of the item.
+     * @param gameTime - The game time in ms to evaluate the filling at.
+     * @return The filling of a single item.
+     */
+    public static float getFilling(EntityRef item, FoodComponent food, long gameTime) {
+        float filling = food.filling.getValue();
+        SpoilageComponent spoilage = item.getComponent(SpoilageComponent.class);
+        return spoilage != null ? filling * getFreshness(spoilage, gameTime) : filling;
+    }
+
+    /**
+     * Get a nutrient channel by name.
+     *
+     * @param nutrients - The nutrient channels of an entity.
+     * @param name - The name of the channel.
+     * @return The channel, or null if there is no channel of that name.
+     */
+    public static NutrientChannel getChannel(NutrientsComponent nutrients, String name) {
+        for (NutrientChannel channel : nutrients.channels) {
+            if (channel.name.equals(name)) {
+                return channel;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the level of a nutrient channel at a given point in game time.
+     *
+     * @param channel - The nutrient channel to evaluate.
+     * @param gameTime - The game time in ms to evaluate the level at.
+     * @return The level at the given time as a float.
+     */
+    public static float getLevel(NutrientChannel channel, long gameTime) {
+        return getLevel(channel.lastCalculatedValue, channel.lastCalculationTime, channel.decayPerSecond, gameTime);
     }
 
+    /**
+     * Get the level of a linearly decaying value at a given point in game time.
+     *
+     * @param lastValue - The value at the last calculation.
+     * @param lastTime - The game time in ms of the last calculation.
+     * @param decayPerSecond - The amount the value decreases per second.
+     * @param gameTime - The game time in ms to evaluate the value at.
+     * @return The value at the given time, which is never below 0.
+     */
+    public static float getLevel(float lastValue, long lastTime, float decayPerSecond, long gameTime) {
+        return Math.max(0, lastValue - decayPerSecond * (gameTime - lastTime) / 1000f);
+    }
+
+    /**
+     * Set the hunger level of a hunger component at a given point in game time, unless the component already
+     * describes that hunger level.
+     *
+     * @param hunger - The hunger component to modify.
+     * @param food - The new hunger level.
+     * @param gameTime - The game time in ms at which the entity has the new hunger level.
+     * @param epsilon - The difference in hunger level below which the component is left untouched.
+     * @return Whether the component was modified and has to be saved.
+     */
+    public static boolean setHunger(HungerComponent hunger, float food, long gameTime, float epsilon) {
+        if (Math.abs(getHunger(hunger, gameTime) - food) <= epsilon) {
+            return false;
+        }
+        hunger.lastCalculatedFood = food;
+        hunger.lastCalculationTime = gameTime;
+        return true;
+    }
+
+    /**
+     * Get the amount of food an entity currently loses per second, including modifications by other systems.
+     *
+     * @param hunger - The hunger component of the entity.
+     * @return The food decay per second.
+     */
+    public static float getFoodDecayPerSecond(HungerComponent hunger) {
+        return hunger.effectiveFoodDecayPerSecond >= 0 ? hunger.effectiveFoodDecayPerSecond : hunger.foodDecayPerSecond;
+    }
+
+    /**
+     * Get the game time at which the hunger level described by a hunger component will drop below a given level.
+     *
+     * @param hunger - The hunger component to evaluate.
+     * @param food - The food level to check for.
+     * @param gameTime - The current game time in ms.
+     * @return The game time in ms at which the hunger level is below the given level for the first time,
+     *         {@code gameTime} if it already is, or {@code Long.MAX_VALUE} if it never will be.
+     */
+    public static long getTimeBelow(HungerComponent hunger, float food, long gameTime) {
+        return getTimeBelow(hunger.lastCalculatedFood, hunger.lastCalculationTime, getFoodDecayPerSecond(hunger),
+                food, gameTime);
+    }
+
+    /**
+     * Get the game time at which the level of a nutrient channel will drop below a given level.
+     *
+     * @param channel - The nutrient channel to evaluate.
+     * @param level - The level to check for.
+     * @param gameTime - The current game time in ms.
+     * @return The game time in ms at which the channel is below the given level for the first time, {@code gameTime}
+     *         if it already is, or {@code Long.MAX_VALUE} if it never will be.
+     */
+    public static long getTimeBelow(NutrientChannel channel, float level, long gameTime) {
+        return getTimeBelow(channel.lastCalculatedValue, channel.lastCalculationTime, channel.decayPerSecond,
+                level, gameTime);
+    }
+
+    /**
+     * Get the game time at which a linearly decaying value will drop below a given level.
+     *
+     * @param lastValue - The value at the last calculation.
+     * @param lastTime - The game time in ms of the last calculation.
+     * @param decayPerSecond - The amount the value decreases per second.
+     * @param level - The level to check for.
+     * @param gameTime - The current game time in ms.
+     * @return The game time in ms at which the value is below the given level for the first time, {@code gameTime}
+     *         if it already is, or {@code Long.MAX_VALUE} if it never will be.
+     */
+    public static long getTimeBelow(float lastValue, long lastTime, float decayPerSecond, float level,
+                                    long gameTime) {
+        float current = getLevel(lastValue, lastTime, decayPerSecond, gameTime);
+        if (current < level) {
+            return gameTime;
+        }
+        if (level <= 0 || decayPerSecond <= 0) {
+            return Long.MAX_VALUE;
+        }
+        double delay = Math.ceil((current - level) * 1000.0 / decayPerSecond) + 1;
+        if (delay >= Long.MAX_VALUE - gameTime) {
+            return Long.MAX_VALUE;
+        }
+        return gameTime + (long) delay;
+    }
 }
@@ -0,0 +1,165 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.joml.Vector3f;
+import org.joml.Vector3fc;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.entitySystem.systems.BaseComponentSystem;
+import org.terasology.engine.entitySystem.systems.RegisterMode;
+import org.terasology.engine.entitySystem.systems.RegisterSystem;
+import org.terasology.engine.logic.location.LocationComponent;
+import org.terasology.engine.registry.Share;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Orders all living hungry entities by the game time at which they drop (or dropped) below their health loss
+ * threshold, so other systems can find the hungriest entities without evaluating every hungry entity. Entities which
+ * never drop below their threshold, e.g. because it is 0 or their food does not decay, follow all others, ordered by
+ * their food level at the time their hunger last changed.
+ * <p>
+ * The index is kept up to date by the {@link HungerAuthoritySystem} whenever the hunger of an entity changes.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+@Share(HungryEntityIndex.class)
+public class HungryEntityIndex extends BaseComponentSystem {
+    private final NavigableSet<Entry> entries = new TreeSet<>(
+            Comparator.comparingLong((Entry entry) -> entry.starvationTime)
+                    .thenComparingDouble(entry -> entry.food)
+                    .thenComparingLong(entry -> entry.id));
+    private final Map<EntityRef, Entry> entriesByEntity = new HashMap<>();
+    private final Vector3f position = new Vector3f();
+
+    @Override
+    public void shutdown() {
+        entries.clear();
+        entriesByEntity.clear();
+    }
+
+    /**
+     * Collects the entities which are closest to starving or have been starving for the longest time.
+     *
+     * @param count The maximum number of entities to collect.
+     * @param out The collection to add the entities to, hungriest first.
+     */
+    public void getHungriest(int count, Collection<EntityRef> out) {
+        int added = 0;
+        for (Entry entry : entries) {
+            if (added++ >= count) {
+                return;
+            }
+            out.add(entry.entity);
+        }
+    }
+
+    /**
+     * Collects the entities which are below their health loss threshold at a given game time, assuming none of them
+     * eats until then.
+     *
+     * @param gameTime The game time in ms.
+     * @param out The collection to add the entities to, hungriest first.
+     */
+    public void getStarvingAt(long gameTime, Collection<EntityRef> out) {
+        if (gameTime == Long.MAX_VALUE) {
+            // Entities which never starve are indexed at this time, but are not starving.
+            gameTime--;
+        }
+        for (Entry entry : entries.headSet(new Entry(EntityRef.NULL, Long.MAX_VALUE, gameTime, Float.MAX_VALUE),
+                true)) {
+            out.add(entry.entity);
+        }
+    }
+
+    /**
+     * Collects the hungriest entities located within a box. Entities are visited hungriest first until enough have
+     * been found, so the cost depends on how many hungrier entities are located elsewhere.
+     *
+     * @param min The minimum corner of the box.
+     * @param max The maximum corner of the box.
+     * @param count The maximum number of entities to collect.
+     * @param out The collection to add the entities to, hungriest first.
+     */
+    public void getHungriestWithin(Vector3fc min, Vector3fc max, int count, Collection<EntityRef> out) {
+        int added = 0;
+        for (Entry entry : entries) {
+            if (added >= count) {
+                return;
+            }
+            LocationComponent location = entry.entity.getComponent(LocationComponent.class);
+            if (location == null) {
+                continue;
+            }
+            location.getWorldPosition(position);
+            if (position.x >= min.x() && position.y >= min.y() && position.z >= min.z()
+                    && position.x <= max.x() && position.y <= max.y() && position.z <= max.z()) {
+                out.add(entry.entity);
+                added++;
+            }
+        }
+    }
+
+    /**
+     * @return The game time in ms at which the entity drops below its health loss threshold, or
+     *         {@code Long.MAX_VALUE} if it never will or is not indexed. Use {@link #contains(EntityRef)} to tell
+     *         these apart.
+     */
+    public long getStarvationTime(EntityRef entity) {
+        Entry entry = entriesByEntity.get(entity);
+        return entry != null ? entry.starvationTime : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return Whether the entity is indexed, i.e. it is a living entity subject to hunger.
+     */
+    public boolean contains(EntityRef entity) {
+        return entriesByEntity.containsKey(entity);
+    }
+
+    /**
+     * Updates the position of an entity in the index.
+     *
+     * @param entity The entity whose hunger changed.
+     * @param starvationTime The game time in ms at which it drops below its health loss threshold, or
+     *         {@code Long.MAX_VALUE} if it never will.
+     * @param food The food level of the entity, which orders the entities that never drop below their threshold.
+     */
+    void update(EntityRef entity, long starvationTime, float food) {
+        Entry entry = entriesByEntity.get(entity);
+        if (entry != null) {
+            if (entry.starvationTime == starvationTime && (starvationTime != Long.MAX_VALUE || entry.food == food)) {
+                return;
+            }
+            entries.remove(entry);
+        }
+        entry = new Entry(entity, entity.getId(), starvationTime, food);
+        entries.add(entry);
+        entriesByEntity.put(entity, entry);
+    }
+
+    void remove(EntityRef entity) {
+        Entry entry = entriesByEntity.remove(entity);
+        if (entry != null) {
+            entries.remove(entry);
+        }
+    }
+
+    private static final class Entry {
+        private final EntityRef entity;
+        private final long id;
+        private final long starvationTime;
+        private final float food;
+
+        private Entry(EntityRef entity, long id, long starvationTime, float food) {
+            this.entity = entity;
+            this.id = id;
+            this.starvationTime = starvationTime;
+            this.food = food;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import gnu.trove.map.hash.TLongIntHashMap;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the game time at which each hungry entity has to be looked at next: the time it will drop below its
+ * health loss threshold, or while it is starving, the time its next unit of starvation damage is due.
+ * <p>
+ * Entities are kept in a binary min-heap on primitive arrays which knows the position of every entity, so entities
+ * can be rescheduled in place and scheduling does not allocate once the arrays are large enough. The ids of the
+ * entities are kept alongside them, so reordering the heap never has to go through the entities.
+ */
+final class StarvationSchedule {
+    /**
+     * Time used for entities that will never starve with their current hunger settings.
+     */
+    static final long NEVER = Long.MAX_VALUE;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final TLongIntHashMap positions = new TLongIntHashMap(INITIAL_CAPACITY, 0.5f, -1, -1);
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private EntityRef[] entities = new EntityRef[INITIAL_CAPACITY];
+    private long[] times = new long[INITIAL_CAPACITY];
+    private int size;
+    private long dueId;
+    private long dueTime;
+
+    /**
+     * Schedules the entity to be handed out at the given game time, replacing any previous time.
+     *
+     * @param entity The entity to schedule.
+     * @param time The game time in ms at which the entity has to be looked at, or {@link #NEVER}.
+     */
+    void schedule(EntityRef entity, long time) {
+        schedule(entity.getId(), entity, time);
+    }
+
+    /**
+     * Like {@link #schedule(EntityRef, long)}, for callers which already know the id of the entity.
+     */
+    void schedule(long id, EntityRef entity, long time) {
+        if (time == NEVER) {
+            remove(id);
+            return;
+        }
+        int position = positions.get(id);
+        if (position < 0) {
+            if (size == entities.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                entities = Arrays.copyOf(entities, size * 2);
+                times = Arrays.copyOf(times, size * 2);
+            }
+            position = size++;
+            ids[position] = id;
+            entities[position] = entity;
+            times[position] = time;
+            positions.put(id, position);
+            siftUp(position);
+        } else {
+            long oldTime = times[position];
+            times[position] = time;
+            if (time < oldTime) {
+                siftUp(position);
+            } else {
+                siftDown(position);
+            }
+        }
+    }
+
+    /**
+     * Forgets about the entity, e.g. because it died or was unloaded.
+     */
+    void remove(EntityRef entity) {
+        remove(entity.getId());
+    }
+
+    private void remove(long id) {
+        int position = positions.remove(id);
+        if (position >= 0) {
+            removeAt(position);
+        }
+    }
+
+    /**
+     * @return The game time the entity is scheduled at, or {@link #NEVER} if it is not scheduled.
+     */
+    long getScheduledTime(EntityRef entity) {
+        int position = positions.get(entity.getId());
+        return position >= 0 ? times[position] : NEVER;
+    }
+
+    /**
+     * @return The earliest scheduled time of all entities, or {@link #NEVER} if no entity is scheduled.
+     */
+    long getNextTime() {
+        return size > 0 ? times[0] : NEVER;
+    }
+
+    /**
+     * Removes and returns the entity with the earliest scheduled time, if that time lies at or before the given game
+     * time. The id of the entity and the time it was scheduled at are available through {@link #getDueId()} and
+     * {@link #getDueTime()} afterwards.
+     *
+     * @return The due entity, or null if no entity is due.
+     */
+    EntityRef pollDue(long gameTime) {
+        if (size == 0 || times[0] > gameTime) {
+            return null;
+        }
+        EntityRef entity = entities[0];
+        dueId = ids[0];
+        dueTime = times[0];
+        positions.remove(dueId);
+        removeAt(0);
+        return entity;
+    }
+
+    /**
+     * @return The id of the entity last returned by {@link #pollDue(long)}.
+     */
+    long getDueId() {
+        return dueId;
+    }
+
+    /**
+     * @return The time the entity last returned by {@link #pollDue(long)} was scheduled at.
+     */
+    long getDueTime() {
+        return dueTime;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        positions.clear();
+        Arrays.fill(entities, 0, size, null);
+        size = 0;
+    }
+
+    private void removeAt(int position) {
+        int last = --size;
+        if (position != last) {
+            move(last, position);
+            entities[last] = null;
+            siftDown(position);
+            siftUp(position);
+        } else {
+            entities[last] = null;
+        }
+    }
+
+    private void siftUp(int position) {
+        long id = ids[position];
+        EntityRef entity = entities[position];
+        long time = times[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (times[parent] <= time) {
+                break;
+            }
+            move(parent, position);
+            position = parent;
+        }
+        place(id, entity, time, position);
+    }
+
+    private void siftDown(int position) {
+        long id = ids[position];
+        EntityRef entity = entities[position];
+        long time = times[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && times[child + 1] < times[child]) {
+                child++;
+            }
+            if (time <= times[child]) {
+                break;
+            }
+            move(child, position);
+            position = child;
+        }
+        place(id, entity, time, position);
+    }
+
+    private void move(int from, int to) {
+        place(ids[from], entities[from], times[from], to);
+    }
+
+    private void place(long id, EntityRef entity, long time, int position) {
+        ids[position] = id;
+        entities[position] = entity;
+        times[position] = time;
+        positions.put(id, position);
+    }
+}
@@ -2,9 +2,23 @@
 // SPDX-License-Identifier: Apache-2.0
 package org.terasology.hunger.component;
 
+import org.terasology.engine.network.FieldReplicateType;
 import org.terasology.engine.network.Replicate;
 import org.terasology.gestalt.entitysystem.component.Component;
 
+/**
+ * The hunger state and configuration of an entity.
+ * <p>
+ * The food level is not updated continuously but extrapolated from the last calculation via
+ * {@link org.terasology.hunger.HungerUtils}, so the authority only changes the component on discontinuities like
+ * eating or respawning. The food level state is only replicated to the owner of the entity, as other clients have no
+ * use for the hunger of e.g. distant creatures.
+ * <p>
+ * The configuration is usually set by the prefab of the entity, e.g. the player prefab. Entities are saved and sent to
+ * clients as a difference to their prefab, so configuration equal to the prefab is neither stored nor sent, and the
+ * prefab acts as a profile shared by all its entities. Values changed for a single entity, e.g. by setMaxHunger, are
+ * stored as overrides of it.
+ */
 public class HungerComponent implements Component<HungerComponent> {
     //General Hunger Settings
     /**
@@ -17,13 +31,13 @@ public class HungerComponent implements Component<HungerComponent> {
     /**
      * The food level of an entity after the last calculation.
      */
-    @Replicate
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
     public float lastCalculatedFood;
 
     /**
      * The ingame time in MS when the last food level calculation happened.
      */
-    @Replicate
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
     public long lastCalculationTime;
 
     /**
@@ -32,6 +46,14 @@ public class HungerComponent implements Component<HungerComponent> {
     @Replicate
     public float foodDecayPerSecond = 0.01f;
 
+    /**
+     * The amount of food decreased per second after other systems had the chance to modify the decay. This is kept
+     * up to date by the authority and is negative if the decay is not modified or has not been calculated yet, in
+     * which case foodDecayPerSecond (above) applies.
+     */
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
+    public float effectiveFoodDecayPerSecond = -1;
+
     //Health loss settings
     /**
      * The entity will begin to lose health if their food capacity is < this threshold. Set to 0, if you do not want
@@ -58,6 +80,7 @@ public class HungerComponent implements Component<HungerComponent> {
         this.lastCalculatedFood = other.lastCalculatedFood;
         this.lastCalculationTime = other.lastCalculationTime;
         this.foodDecayPerSecond = other.foodDecayPerSecond;
+        this.effectiveFoodDecayPerSecond = other.effectiveFoodDecayPerSecond;
         this.healthLossThreshold = other.healthLossThreshold;
         this.healthStopRegenThreshold = other.healthStopRegenThreshold;
         this.healthDecreaseAmount = other.healthDecreaseAmount;
@@ -0,0 +1,83 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger.component;
+
+import org.terasology.engine.rendering.assets.texture.TextureRegionAsset;
+import org.terasology.reflection.MappedContainer;
+
+/**
+ * A single survival stat of an entity, like thirst, that decays over time in the same way as food does in
+ * {@link HungerComponent}.
+ * <p>
+ * Like the food level, the level of a channel is not updated continuously but extrapolated from the last calculation
+ * via {@link org.terasology.hunger.HungerUtils}.
+ */
+@MappedContainer
+public class NutrientChannel {
+    /**
+     * The name other systems use to refer to the channel, e.g. "thirst".
+     */
+    public String name = "";
+
+    /**
+     * The maximum level of the channel. The minimum is 0.
+     */
+    public float maxCapacity = 100;
+
+    /**
+     * The level of the channel after the last calculation.
+     */
+    public float lastCalculatedValue;
+
+    /**
+     * The ingame time in MS when the last level calculation happened.
+     */
+    public long lastCalculationTime;
+
+    /**
+     * The amount the level decreases per second.
+     */
+    public float decayPerSecond = 0.01f;
+
+    /**
+     * The entity will begin to lose health if the level is < this threshold.
+     */
+    public float healthLossThreshold = 15;
+
+    /**
+     * The entity will stop regenerating health if the level is < this threshold.
+     */
+    public float healthStopRegenThreshold = 50;
+
+    /**
+     * The amount of health decreased at every damage interval while the level is below the health loss threshold.
+     * Set to 0, if you do not want the entity to lose health.
+     */
+    public int healthDecreaseAmount = 15;
+
+    /**
+     * The icon shown next to the channel's bar in the HUD. If not set, the hunger icon is shown.
+     */
+    public TextureRegionAsset<?> icon;
+
+    /**
+     * The texture the channel's bar in the HUD is filled with. If not set, the hunger bar texture is used.
+     */
+    public TextureRegionAsset<?> barTexture;
+
+    public NutrientChannel() {
+    }
+
+    public NutrientChannel(NutrientChannel other) {
+        this.name = other.name;
+        this.maxCapacity = other.maxCapacity;
+        this.lastCalculatedValue = other.lastCalculatedValue;
+        this.lastCalculationTime = other.lastCalculationTime;
+        this.decayPerSecond = other.decayPerSecond;
+        this.healthLossThreshold = other.healthLossThreshold;
+        this.healthStopRegenThreshold = other.healthStopRegenThreshold;
+        this.healthDecreaseAmount = other.healthDecreaseAmount;
+        this.icon = other.icon;
+        this.barTexture = other.barTexture;
+    }
+}
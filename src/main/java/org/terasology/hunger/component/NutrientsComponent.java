@@ -0,0 +1,33 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger.component;
+
+import org.terasology.engine.network.FieldReplicateType;
+import org.terasology.engine.network.Replicate;
+import org.terasology.gestalt.entitysystem.component.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Additional survival stats of an entity, like thirst, which decay over time and hurt the entity when depleted.
+ * <p>
+ * Channels only take effect on entities which also have a {@link HungerComponent}. They are evaluated together with
+ * the entity's hunger, so adding another stat to an entity adds neither another scheduled check nor another damage
+ * event. Use the {@link org.terasology.hunger.event.ChangeNutrientEvent} to change the level of a channel.
+ */
+public class NutrientsComponent implements Component<NutrientsComponent> {
+    /**
+     * The channels of the entity. Channel names are expected to be unique.
+     */
+    @Replicate(FieldReplicateType.SERVER_TO_OWNER)
+    public List<NutrientChannel> channels = new ArrayList<>();
+
+    @Override
+    public void copyFrom(NutrientsComponent other) {
+        this.channels = new ArrayList<>(other.channels.size());
+        for (NutrientChannel channel : other.channels) {
+            this.channels.add(new NutrientChannel(channel));
+        }
+    }
+}
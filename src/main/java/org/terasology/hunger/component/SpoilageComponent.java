@@ -0,0 +1,51 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger.component;
+
+import org.terasology.engine.entitySystem.prefab.Prefab;
+import org.terasology.engine.network.Replicate;
+import org.terasology.gestalt.entitysystem.component.Component;
+
+/**
+ * Lets a food item spoil over time, which reduces how filling it is.
+ * <p>
+ * Like the food level in {@link HungerComponent}, the freshness is not updated continuously but extrapolated from the
+ * last calculation via {@link org.terasology.hunger.HungerUtils}, so stored food costs nothing until it is looked at,
+ * eaten or moved.
+ */
+public class SpoilageComponent implements Component<SpoilageComponent> {
+    /**
+     * The freshness of the item after the last calculation, from 1 (fresh) to 0 (spoiled). The filling of the food
+     * is multiplied by its freshness.
+     */
+    @Replicate
+    public float lastCalculatedFreshness = 1;
+
+    /**
+     * The ingame time in MS when the last freshness calculation happened. Negative until the item has been created
+     * in the world.
+     */
+    @Replicate
+    public long lastCalculationTime = -1;
+
+    /**
+     * The amount of freshness lost per second. The default spoils food within roughly three hours.
+     */
+    @Replicate
+    public float freshnessDecayPerSecond = 0.0001f;
+
+    /**
+     * The item that replaces the food in an inventory once it has completely spoiled. If not set, spoiled food
+     * remains but is no longer filling.
+     */
+    @Replicate
+    public Prefab spoiledPrefab;
+
+    @Override
+    public void copyFrom(SpoilageComponent other) {
+        this.lastCalculatedFreshness = other.lastCalculatedFreshness;
+        this.lastCalculationTime = other.lastCalculationTime;
+        this.freshnessDecayPerSecond = other.freshnessDecayPerSecond;
+        this.spoiledPrefab = other.spoiledPrefab;
+    }
+}
@@ -18,8 +18,13 @@ package org.terasology.hunger.event;
 import org.terasology.engine.entitySystem.event.AbstractValueModifiableEvent;
 
 /**
- * This event is sent out by the {@link org.terasology.hunger.HungerAuthoritySystem} to allow for other systems to
- * modify hunger decay.
+ * This event is sent out by the {@link org.terasology.hunger.HungerDecayModifierRegistry} to allow for other systems
+ * to modify hunger decay. The base value is the food lost per hunger damage interval.
+ * <p>
+ * The event is only sent when the food decay of an entity is recalculated, i.e. when it becomes subject to hunger or
+ * its configured decay changes. Systems changing their modification later on have to send a
+ * {@link HungerDecayChangedEvent} to the entity. New systems should prefer registering a
+ * {@link org.terasology.hunger.HungerDecayModifier}, which avoids dispatching this event.
  */
 public class AffectHungerEvent extends AbstractValueModifiableEvent {
     public AffectHungerEvent(float baseValue) {
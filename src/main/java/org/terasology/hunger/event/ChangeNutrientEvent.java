@@ -0,0 +1,28 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger.event;
+
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * Send this event to a hungry entity to change the level of one of its nutrient channels, e.g. when it drinks. The
+ * result is limited to the capacity of the channel. Any starvation damage the entity owes up to the change is dealt
+ * before it takes effect.
+ */
+public class ChangeNutrientEvent implements Event {
+    private String name;
+    private float amount;
+
+    public ChangeNutrientEvent(String name, float amount) {
+        this.name = name;
+        this.amount = amount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public float getAmount() {
+        return amount;
+    }
+}
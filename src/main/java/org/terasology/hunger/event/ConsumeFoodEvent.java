@@ -0,0 +1,43 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger.event;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * Send this event to an entity with a hunger component to make it eat a number of items of a food stack at once, e.g.
+ * for automatically feeding NPCs. The entity's hunger is updated once for all items and, if the food is consumed on
+ * use, they are removed from the entity's inventory in a single step.
+ * <p>
+ * Food which is consumed on use has to be named by the slot of the entity's inventory holding it, so eating it does
+ * not need to search the inventory.
+ */
+public class ConsumeFoodEvent implements Event {
+    private EntityRef item;
+    private int slot;
+    private int count;
+
+    /**
+     * @param item The food item to eat.
+     * @param slot The slot of the eater's inventory holding the item, or -1 if the item is not in its inventory.
+     * @param count The number of items of the stack to eat.
+     */
+    public ConsumeFoodEvent(EntityRef item, int slot, int count) {
+        this.item = item;
+        this.slot = slot;
+        this.count = count;
+    }
+
+    public EntityRef getItem() {
+        return item;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
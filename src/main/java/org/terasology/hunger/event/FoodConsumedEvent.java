@@ -19,14 +19,26 @@ import org.terasology.engine.entitySystem.entity.EntityRef;
 import org.terasology.engine.logic.common.ActivateEvent;
 import org.terasology.gestalt.entitysystem.event.Event;
 
-/** This event is triggered after the Activate event has been consumed upon eating of a food item */
+/**
+ * This event is triggered after the Activate event has been consumed upon eating of a food item, or after an entity
+ * ate food because of a {@link ConsumeFoodEvent}.
+ */
 public class FoodConsumedEvent implements Event {
     private EntityRef instigator;
     private EntityRef target;
+    private int slot;
+    private int count;
+    private boolean itemRemoved;
 
     public FoodConsumedEvent(ActivateEvent event) {
-        this.instigator = event.getInstigator();
-        this.target = event.getTarget();
+        this(event.getInstigator(), event.getTarget(), -1, 1);
+    }
+
+    public FoodConsumedEvent(EntityRef instigator, EntityRef target, int slot, int count) {
+        this.instigator = instigator;
+        this.target = target;
+        this.slot = slot;
+        this.count = count;
     }
 
     public EntityRef getInstigator() {
@@ -36,4 +48,29 @@ public class FoodConsumedEvent implements Event {
     public EntityRef getTarget() {
         return target;
     }
+
+    /**
+     * @return The slot of the instigator's inventory holding the eaten item, or -1 if it is not known.
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * @return The number of items of the food stack that were eaten.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return Whether the eaten items have already been removed from the instigator's inventory.
+     */
+    public boolean isItemRemoved() {
+        return itemRemoved;
+    }
+
+    public void setItemRemoved(boolean itemRemoved) {
+        this.itemRemoved = itemRemoved;
+    }
 }
@@ -0,0 +1,15 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger.event;
+
+import org.terasology.gestalt.entitysystem.event.Event;
+
+/**
+ * Send this event to an entity whenever the way a system modifies its hunger decay (via {@link AffectHungerEvent})
+ * changes, e.g. when a buff slowing down hunger is added or removed. The
+ * {@link org.terasology.hunger.HungerAuthoritySystem} will then recalculate the decay and starvation time of the
+ * entity. Systems using a {@link org.terasology.hunger.HungerDecayModifier} can use
+ * {@link org.terasology.hunger.HungerDecayModifierRegistry#invalidate} instead.
+ */
+public class HungerDecayChangedEvent implements Event {
+}
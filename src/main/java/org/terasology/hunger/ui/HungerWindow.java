@@ -15,45 +15,37 @@
  */
 package org.terasology.hunger.ui;
 
-import org.terasology.engine.entitySystem.entity.EntityRef;
-import org.terasology.engine.logic.players.LocalPlayer;
 import org.terasology.engine.registry.CoreRegistry;
 import org.terasology.engine.rendering.nui.layers.hud.CoreHudWidget;
-import org.terasology.hunger.HungerUtils;
-import org.terasology.hunger.component.HungerComponent;
-import org.terasology.nui.databinding.Binding;
-import org.terasology.nui.databinding.ReadOnlyBinding;
-import org.terasology.nui.widgets.UILoadBar;
-
+import org.terasology.hunger.HungerClientSystem;
 
+/**
+ * Shows the vitals of the local character, i.e. its hunger, its nutrient channels and its breath while drowning, as
+ * bars of a single {@link UIVitalBars} widget. The bars are updated from the snapshot kept by the
+ * {@link HungerClientSystem}.
+ */
 public class HungerWindow extends CoreHudWidget {
-    /** This method initialises the hunger bar UI for a player and updates it based on current hunger. */
+    private HungerClientSystem hungerClientSystem;
+    private UIVitalBars vitals;
+
+    /** This method initialises the vital bars UI for a player. */
     @Override
     public void initialise() {
-        UILoadBar hunger = find("hunger", UILoadBar.class);
-        hunger.bindVisible(new ReadOnlyBinding<Boolean>() {
-            @Override
-            public Boolean get() {
-                EntityRef character = CoreRegistry.get(LocalPlayer.class).getCharacterEntity();
-                return character != null && character.hasComponent(HungerComponent.class);
-            }
-        });
-        hunger.bindValue(
-                new Binding<Float>() {
-                    @Override
-                    public Float get() {
-                        EntityRef character = CoreRegistry.get(LocalPlayer.class).getCharacterEntity();
-                        if (character == null || !character.hasComponent(HungerComponent.class)) {
-                            return 0.0f;
-                        }
-
-                        HungerComponent hunger = character.getComponent(HungerComponent.class);
-                        return HungerUtils.getHungerForEntity(character) / hunger.maxFoodCapacity;
-                    }
+        hungerClientSystem = CoreRegistry.get(HungerClientSystem.class);
+        vitals = find("vitals", UIVitalBars.class);
+    }
 
-                    @Override
-                    public void set(Float value) {
-                    }
-                });
+    /** Updates the vital bars based on the current vitals of the player. */
+    @Override
+    public void update(float delta) {
+        super.update(delta);
+        int count = hungerClientSystem.getLocalVitalCount();
+        vitals.setBarCount(count);
+        vitals.setVisible(count > 0);
+        for (int i = 0; i < count; i++) {
+            vitals.setTextures(i, hungerClientSystem.getLocalVitalIcon(i),
+                    hungerClientSystem.getLocalVitalBarTexture(i));
+            vitals.setFill(i, hungerClientSystem.getLocalVitalFraction(i));
+        }
     }
 }
@@ -0,0 +1,168 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger.ui;
+
+import org.joml.Rectanglei;
+import org.joml.Vector2i;
+import org.terasology.nui.Canvas;
+import org.terasology.nui.CoreWidget;
+import org.terasology.nui.LayoutConfig;
+import org.terasology.nui.ScaleMode;
+import org.terasology.nui.UITextureRegion;
+
+import java.util.Arrays;
+
+/**
+ * Draws several vital bars stacked on top of each other, with the first bar at the bottom. Every bar has an icon to
+ * its left, and can have its own icon and fill texture, e.g. provided by a nutrient channel.
+ * <p>
+ * Unlike a set of {@link org.terasology.nui.widgets.UILoadBar}s, the bars have no bindings that are evaluated every
+ * frame. Their fill levels are pushed in pixels, and the regions of the bars are only recalculated when a bar changes
+ * by at least one pixel.
+ */
+public class UIVitalBars extends CoreWidget {
+    /**
+     * The texture of bars which have no texture of their own.
+     */
+    @LayoutConfig
+    private UITextureRegion fillTexture;
+
+    /**
+     * The icon of bars which have no icon of their own.
+     */
+    @LayoutConfig
+    private UITextureRegion icon;
+
+    @LayoutConfig
+    private int iconWidth = 15;
+
+    @LayoutConfig
+    private int iconHeight = 18;
+
+    /**
+     * The horizontal space between the icons and the bars.
+     */
+    @LayoutConfig
+    private int iconSpacing = 32;
+
+    @LayoutConfig
+    private int barWidth = 200;
+
+    @LayoutConfig
+    private int barHeight = 10;
+
+    /**
+     * The vertical space between the rows of icons and bars.
+     */
+    @LayoutConfig
+    private int spacing = 4;
+
+    private int barCount;
+    private int[] fills = new int[0];
+    private UITextureRegion[] icons = new UITextureRegion[0];
+    private UITextureRegion[] fillTextures = new UITextureRegion[0];
+    private Rectanglei[] iconRegions = new Rectanglei[0];
+    private Rectanglei[] regions = new Rectanglei[0];
+    private int regionsHeight = -1;
+
+    /**
+     * Changes the number of bars. New bars are empty and use the default icon and texture.
+     */
+    public void setBarCount(int count) {
+        if (count == barCount) {
+            return;
+        }
+        if (count > fills.length) {
+            fills = Arrays.copyOf(fills, count);
+            icons = Arrays.copyOf(icons, count);
+            fillTextures = Arrays.copyOf(fillTextures, count);
+            iconRegions = Arrays.copyOf(iconRegions, count);
+            regions = Arrays.copyOf(regions, count);
+            for (int i = barCount; i < count; i++) {
+                iconRegions[i] = new Rectanglei();
+                regions[i] = new Rectanglei();
+            }
+        }
+        for (int i = barCount; i < count; i++) {
+            fills[i] = 0;
+            icons[i] = null;
+            fillTextures[i] = null;
+        }
+        barCount = count;
+        regionsHeight = -1;
+    }
+
+    public int getBarCount() {
+        return barCount;
+    }
+
+    /**
+     * Sets the icon and the fill texture of a bar.
+     *
+     * @param index The index of the bar, 0 being the bottom one.
+     * @param barIcon The icon of the bar, or null to use the default icon.
+     * @param barTexture The fill texture of the bar, or null to use the default texture.
+     */
+    public void setTextures(int index, UITextureRegion barIcon, UITextureRegion barTexture) {
+        icons[index] = barIcon;
+        fillTextures[index] = barTexture;
+    }
+
+    /**
+     * Sets the fill level of a bar.
+     *
+     * @param index The index of the bar, 0 being the bottom one.
+     * @param fraction The fill level between 0 and 1.
+     */
+    public void setFill(int index, float fraction) {
+        int fill = Math.round(Math.max(0, Math.min(1, fraction)) * barWidth);
+        if (fills[index] != fill) {
+            fills[index] = fill;
+            regionsHeight = -1;
+        }
+    }
+
+    @Override
+    public void onDraw(Canvas canvas) {
+        if (barCount == 0) {
+            return;
+        }
+        int height = canvas.size().y;
+        if (regionsHeight != height) {
+            updateRegions(height);
+        }
+        for (int i = 0; i < barCount; i++) {
+            UITextureRegion barIcon = icons[i] != null ? icons[i] : icon;
+            if (barIcon != null) {
+                canvas.drawTexture(barIcon, iconRegions[i]);
+            }
+            UITextureRegion barTexture = fillTextures[i] != null ? fillTextures[i] : fillTexture;
+            if (fills[i] > 0 && barTexture != null) {
+                canvas.drawTextureRaw(barTexture, regions[i], ScaleMode.TILED);
+            }
+        }
+    }
+
+    private void updateRegions(int height) {
+        int rowHeight = getRowHeight();
+        int barLeft = iconWidth + iconSpacing;
+        for (int i = 0; i < barCount; i++) {
+            int rowBottom = height - i * (rowHeight + spacing);
+            iconRegions[i].setMin(0, rowBottom - iconHeight).setMax(iconWidth, rowBottom);
+            // The bar is centered vertically on the icon.
+            int barBottom = rowBottom - (rowHeight - barHeight) / 2;
+            regions[i].setMin(barLeft, barBottom - barHeight).setMax(barLeft + fills[i], barBottom);
+        }
+        regionsHeight = height;
+    }
+
+    private int getRowHeight() {
+        return Math.max(iconHeight, barHeight);
+    }
+
+    @Override
+    public Vector2i getPreferredContentSize(Canvas canvas, Vector2i sizeHint) {
+        int count = Math.max(1, barCount);
+        return new Vector2i(iconWidth + iconSpacing + barWidth, count * getRowHeight() + (count - 1) * spacing);
+    }
+}
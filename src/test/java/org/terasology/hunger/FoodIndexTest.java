@@ -0,0 +1,59 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.terasology.hunger.StarvationScheduleTest.entity;
+
+public class FoodIndexTest {
+    private FoodIndex index;
+    private EntityRef apple;
+    private EntityRef bread;
+    private EntityRef meat;
+
+    @BeforeEach
+    public void setup() {
+        index = new FoodIndex();
+        apple = entity(1);
+        bread = entity(2);
+        meat = entity(3);
+        index.put(apple, 10);
+        index.put(bread, 30);
+        index.put(meat, 60);
+    }
+
+    @Test
+    public void testPrefersMostFillingItemThatFits() {
+        assertSame(bread, index.getBest(50));
+        assertSame(meat, index.getBest(60));
+        assertSame(meat, index.getBest(100));
+    }
+
+    @Test
+    public void testFallsBackToLeastWastefulItem() {
+        assertSame(apple, index.getBest(5));
+    }
+
+    @Test
+    public void testRemoveAndUpdate() {
+        index.remove(bread);
+        assertSame(apple, index.getBest(50));
+
+        index.put(apple, 70);
+        assertSame(apple, index.getBest(100));
+        assertSame(meat, index.getBest(65));
+        assertSame(meat, index.getBest(50));
+
+        assertEquals(70, index.getFilling(apple));
+
+        index.remove(meat);
+        index.remove(apple);
+        assertSame(EntityRef.NULL, index.getBest(50));
+        assertEquals(0, index.getFilling(apple));
+    }
+}
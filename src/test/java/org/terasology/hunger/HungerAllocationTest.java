@@ -0,0 +1,135 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.hunger.component.HungerComponent;
+import org.terasology.hunger.component.NutrientChannel;
+import org.terasology.hunger.component.NutrientsComponent;
+import org.terasology.hunger.ui.HungerWindow;
+import org.terasology.hunger.ui.UIVitalBars;
+import org.terasology.nui.UITextureRegion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Makes sure that the steady-state starvation tick of {@link HungerAuthoritySystem} and the per-frame update of the
+ * hunger HUD do not allocate. Both run on a {@link HungerTestEnvironment}, whose entities do not allocate themselves.
+ */
+public class HungerAllocationTest {
+    private static final int ENTITY_COUNT = 2048;
+    private static final int TICKS = 2000;
+    private static final long TICK_MS = 50;
+    private static final long MAX_BYTES_PER_TICK = 16;
+    /**
+     * The damage events sent by the tick are the only objects it is expected to create.
+     */
+    private static final long MAX_BYTES_PER_DAMAGE_EVENT = 48;
+    private static final int FRAMES = 10000;
+    private static final long FRAME_MS = 16;
+    private static final long MAX_BYTES_PER_FRAME = 16;
+
+    private final HungerTestEnvironment environment = new HungerTestEnvironment();
+
+    @Test
+    public void testSteadyStateTickDoesNotAllocate() {
+        assumeTrue(HungerTestEnvironment.isAllocationMeasurable(), "Allocated memory cannot be measured on this JVM");
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            TestEntityRef character = environment.createCharacter(i % 100, 1, Integer.MAX_VALUE, 1);
+            if (i % 2 == 0) {
+                character.addComponent(createNutrients(i % 100));
+            }
+        }
+        // Long enough for every entity to be starving.
+        for (int i = 0; i < TICKS; i++) {
+            environment.advance(TICK_MS);
+        }
+
+        long damageEvents = environment.getDamageEvents();
+        long before = HungerTestEnvironment.getAllocatedBytes();
+        for (int i = 0; i < TICKS; i++) {
+            environment.advance(TICK_MS);
+        }
+        long allocated = HungerTestEnvironment.getAllocatedBytes() - before;
+        damageEvents = environment.getDamageEvents() - damageEvents;
+
+        assertTrue(damageEvents >= ENTITY_COUNT, "Only " + damageEvents + " damage events were sent");
+        assertTrue(allocated <= MAX_BYTES_PER_TICK * TICKS + MAX_BYTES_PER_DAMAGE_EVENT * damageEvents,
+                "Starvation tick allocated " + allocated / TICKS + " bytes per tick for "
+                        + damageEvents / TICKS + " damage events per tick");
+    }
+
+    @Test
+    public void testHudUpdateDoesNotAllocate() {
+        assumeTrue(HungerTestEnvironment.isAllocationMeasurable(), "Allocated memory cannot be measured on this JVM");
+        TestEntityRef character = environment.createEntity();
+        HungerComponent hunger = character.addComponent(new HungerComponent());
+        hunger.lastCalculatedFood = hunger.maxFoodCapacity;
+        NutrientsComponent nutrients = character.addComponent(createNutrients(100));
+        HungerClientSystem hungerClientSystem = environment.inject(new HungerClientSystem());
+        HungerTestEnvironment.setField(hungerClientSystem, "character", character);
+        hungerClientSystem.onHungerActivated(null, character, hunger);
+        hungerClientSystem.onNutrientsActivated(null, character, nutrients);
+        hungerClientSystem.addVital(new FixedVital());
+
+        UIVitalBars vitals = new UIVitalBars();
+        HungerWindow window = new HungerWindow();
+        HungerTestEnvironment.setField(window, "hungerClientSystem", hungerClientSystem);
+        HungerTestEnvironment.setField(window, "vitals", vitals);
+        for (int i = 0; i < FRAMES; i++) {
+            environment.advance(FRAME_MS);
+            window.update(FRAME_MS / 1000f);
+        }
+
+        long before = HungerTestEnvironment.getAllocatedBytes();
+        for (int i = 0; i < FRAMES; i++) {
+            environment.advance(FRAME_MS);
+            window.update(FRAME_MS / 1000f);
+        }
+        long allocated = HungerTestEnvironment.getAllocatedBytes() - before;
+
+        assertEquals(4, vitals.getBarCount());
+        assertTrue(allocated <= MAX_BYTES_PER_FRAME * FRAMES,
+                "HUD update allocated " + allocated / FRAMES + " bytes per frame");
+    }
+
+    private NutrientsComponent createNutrients(float level) {
+        NutrientsComponent nutrients = new NutrientsComponent();
+        for (String name : new String[] {"water", "protein"}) {
+            NutrientChannel channel = new NutrientChannel();
+            channel.name = name;
+            channel.lastCalculatedValue = level;
+            channel.decayPerSecond = 0.5f;
+            channel.lastCalculationTime = environment.getTime().getGameTimeInMs();
+            nutrients.channels.add(channel);
+        }
+        return nutrients;
+    }
+
+    /**
+     * A vital of another system, like breath, which is always shown half full.
+     */
+    private static class FixedVital implements HungerClientSystem.Vital {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public float getFraction() {
+            return 0.5f;
+        }
+
+        @Override
+        public UITextureRegion getIcon() {
+            return null;
+        }
+
+        @Override
+        public UITextureRegion getBarTexture() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.engine.logic.common.ActivateEvent;
+import org.terasology.engine.logic.inventory.ItemComponent;
+import org.terasology.hunger.event.ConsumeFoodEvent;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A benchmark of the hunger authority on a {@link HungerTestEnvironment}, i.e. of the real event handlers and tick
+ * with the entity system replaced by allocation-free stubs. It is not run as part of the tests; run its main method to
+ * print the throughput, the bytes allocated per operation and the latency percentiles of each operation for 100, 1000,
+ * 10000 and 100000 entities, or for the entity counts given as arguments.
+ * <p>
+ * The operations are:
+ * <ul>
+ *     <li>the starvation tick, with every entity starving and due, and a tick budget large enough to process them all,
+ *     </li>
+ *     <li>eating through an {@link ActivateEvent} on the food, handled by foodConsumed and usedItem,</li>
+ *     <li>eating through a {@link ConsumeFoodEvent} naming the inventory slot, handled by onConsumeFood and usedItem,
+ *     </li>
+ *     <li>{@link HungerUtils#getHungerForEntity}.</li>
+ * </ul>
+ * Every operation is timed on its own, so operations of a few nanoseconds include the overhead of the timer.
+ */
+public final class HungerAuthorityBenchmark {
+    private static final int[] DEFAULT_ENTITY_COUNTS = {100, 1_000, 10_000, 100_000};
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 20;
+    /**
+     * The least number of entities the starvation tick is measured for, over all ticks.
+     */
+    private static final int MEASURED_TICK_ENTITIES = 2_000_000;
+    private static final int STACK_SIZE = 100;
+    private static final int HEALTH = Integer.MAX_VALUE;
+
+    private final int entityCount;
+    private final HungerTestEnvironment environment = new HungerTestEnvironment();
+    private final TestEntityRef[] characters;
+    private final TestEntityRef[] foods;
+    private final ActivateEvent[] activateEvents;
+    private final ConsumeFoodEvent[] consumeEvents;
+    private final long[] latencies;
+
+    private double blackhole;
+
+    private HungerAuthorityBenchmark(int entityCount) {
+        this.entityCount = entityCount;
+        HungerAuthoritySystem authority = environment.getAuthority();
+        authority.tickBudgetMicros = Integer.MAX_VALUE;
+        authority.maxEntitiesPerTick = Integer.MAX_VALUE;
+        authority.rehydrationSpreadMs = 0;
+
+        characters = new TestEntityRef[entityCount];
+        foods = new TestEntityRef[entityCount];
+        activateEvents = new ActivateEvent[entityCount];
+        consumeEvents = new ConsumeFoodEvent[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            // Starving from the start, so every entity is due at every damage interval.
+            characters[i] = environment.createCharacter(0, 0.01f, HEALTH, 1);
+            foods[i] = environment.createFood(characters[i], 0, 1, STACK_SIZE);
+            activateEvents[i] = new ActivateEvent(foods[i], characters[i], null, null, null, null, 0);
+            consumeEvents[i] = new ConsumeFoodEvent(foods[i], 0, 1);
+        }
+        latencies = new long[Math.max(getTickRounds(), MEASURED_ROUNDS) * Math.max(1, entityCount)];
+    }
+
+    public static void main(String[] args) {
+        int[] entityCounts = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : DEFAULT_ENTITY_COUNTS;
+        if (!HungerTestEnvironment.isAllocationMeasurable()) {
+            System.out.println("Allocated bytes cannot be measured on this JVM, they are reported as 0.");
+        }
+        System.out.printf("%-20s %9s %14s %10s %10s %10s %12s%n",
+                "operation", "entities", "ops/s", "B/op", "p50 ns", "p99 ns", "max ns");
+        for (int entityCount : entityCounts) {
+            HungerAuthorityBenchmark benchmark = new HungerAuthorityBenchmark(entityCount);
+            benchmark.run("starvation tick", benchmark.getTickRounds(), 1, benchmark::tick);
+            benchmark.run("activate food", MEASURED_ROUNDS, entityCount, benchmark::activateFood);
+            benchmark.run("consume food", MEASURED_ROUNDS, entityCount, benchmark::consumeFood);
+            benchmark.run("hunger of entity", MEASURED_ROUNDS, entityCount, benchmark::getHunger);
+            System.out.println("(" + benchmark.blackhole + ", " + benchmark.environment.getDamageEvents()
+                    + " damage events)");
+        }
+    }
+
+    /**
+     * @return The number of ticks to measure, so that at least {@link #MEASURED_TICK_ENTITIES} entities are processed.
+     */
+    private int getTickRounds() {
+        return Math.max(MEASURED_ROUNDS, MEASURED_TICK_ENTITIES / Math.max(1, entityCount));
+    }
+
+    private void run(String name, int rounds, int opsPerRound, IntConsumer operation) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            runRound(operation, opsPerRound, null, 0);
+        }
+        boolean measureAllocation = HungerTestEnvironment.isAllocationMeasurable();
+        long allocatedBefore = measureAllocation ? HungerTestEnvironment.getAllocatedBytes() : 0;
+        for (int round = 0; round < rounds; round++) {
+            runRound(operation, opsPerRound, latencies, round * opsPerRound);
+        }
+        long allocated = measureAllocation ? HungerTestEnvironment.getAllocatedBytes() - allocatedBefore : 0;
+
+        int ops = rounds * opsPerRound;
+        long totalNanos = 0;
+        for (int i = 0; i < ops; i++) {
+            totalNanos += latencies[i];
+        }
+        Arrays.sort(latencies, 0, ops);
+        System.out.printf("%-20s %9d %14.0f %10.1f %10d %10d %12d%n", name, entityCount,
+                ops * 1e9 / Math.max(1, totalNanos), (double) allocated / ops,
+                latencies[(int) (ops * 0.5)], latencies[(int) (ops * 0.99)], latencies[ops - 1]);
+        if (opsPerRound == 1) {
+            System.out.printf("%-20s %9d %14.0f %10.1f%n", "  per entity", entityCount,
+                    (double) ops * entityCount * 1e9 / Math.max(1, totalNanos), (double) allocated / ops / entityCount);
+        }
+    }
+
+    /**
+     * Runs the operation once per entity, or once if it is the starvation tick, and refills the food stacks.
+     *
+     * @param times The buffer to store the latency of each run of the operation in, or null if it is not measured.
+     */
+    private void runRound(IntConsumer operation, int opsPerRound, long[] times, int offset) {
+        for (int i = 0; i < opsPerRound; i++) {
+            long start = System.nanoTime();
+            operation.accept(i);
+            long end = System.nanoTime();
+            if (times != null) {
+                times[offset + i] = end - start;
+            }
+        }
+        for (TestEntityRef food : foods) {
+            food.getComponent(ItemComponent.class).stackCount = STACK_SIZE;
+        }
+    }
+
+    private void tick(int index) {
+        environment.advance(environment.getAuthority().healthDecreaseInterval);
+    }
+
+    private void activateFood(int index) {
+        foods[index].send(activateEvents[index]);
+    }
+
+    private void consumeFood(int index) {
+        characters[index].send(consumeEvents[index]);
+    }
+
+    private void getHunger(int index) {
+        blackhole += HungerUtils.getHungerForEntity(characters[index]);
+    }
+}
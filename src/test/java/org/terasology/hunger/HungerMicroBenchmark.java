@@ -0,0 +1,113 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.hunger.component.HungerComponent;
+
+import java.util.Random;
+
+import static org.terasology.hunger.StarvationScheduleTest.entity;
+
+/**
+ * A simple micro-benchmark for the data structures behind the hunger systems. It is not run as part of the tests;
+ * run its main method to print the average time per operation for a given number of entities (default 10000).
+ */
+public final class HungerMicroBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 50;
+
+    private final int entityCount;
+    private final EntityRef[] entities;
+    private final long[] times;
+    private final StarvationSchedule schedule = new StarvationSchedule();
+    private final HungerStateStore store = new HungerStateStore();
+    private final FoodIndex foodIndex = new FoodIndex();
+    private final int[] slots;
+    private final float[] levels;
+
+    private long blackhole;
+
+    private HungerMicroBenchmark(int entityCount) {
+        this.entityCount = entityCount;
+        entities = new EntityRef[entityCount];
+        times = new long[entityCount];
+        slots = new int[entityCount];
+        levels = new float[entityCount];
+        Random random = new Random(42);
+        for (int i = 0; i < entityCount; i++) {
+            entities[i] = entity(i);
+            times[i] = random.nextInt(1_000_000);
+            HungerComponent hunger = new HungerComponent();
+            hunger.lastCalculatedFood = random.nextFloat() * hunger.maxFoodCapacity;
+            slots[i] = store.put(entities[i], hunger);
+            foodIndex.put(entities[i], random.nextInt(100));
+        }
+    }
+
+    public static void main(String[] args) {
+        int entityCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        HungerMicroBenchmark benchmark = new HungerMicroBenchmark(entityCount);
+        benchmark.run("schedule and poll", benchmark::scheduleAndPoll);
+        benchmark.run("reschedule", benchmark::reschedule);
+        benchmark.run("evaluate", benchmark::evaluate);
+        benchmark.run("evaluate in parallel", benchmark::evaluateParallel);
+        benchmark.run("time below", benchmark::timeBelow);
+        benchmark.run("best food", benchmark::bestFood);
+        System.out.println("(" + benchmark.blackhole + ")");
+    }
+
+    private void run(String name, Runnable operation) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            operation.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            operation.run();
+        }
+        double nanosPerOperation = (System.nanoTime() - start) / ((double) MEASURED_ROUNDS * entityCount);
+        System.out.printf("%-24s %8.1f ns/op%n", name, nanosPerOperation);
+    }
+
+    private void scheduleAndPoll() {
+        for (int i = 0; i < entityCount; i++) {
+            schedule.schedule(entities[i], times[i]);
+        }
+        while (schedule.pollDue(Long.MAX_VALUE - 1) != null) {
+            blackhole += schedule.getDueTime();
+        }
+    }
+
+    private void reschedule() {
+        for (int i = 0; i < entityCount; i++) {
+            schedule.schedule(entities[i], times[i]);
+        }
+        for (int i = 0; i < entityCount; i++) {
+            schedule.schedule(entities[i], times[entityCount - 1 - i]);
+        }
+        blackhole += schedule.getNextTime();
+        schedule.clear();
+    }
+
+    private void evaluate() {
+        store.evaluate(slots, times, entityCount, levels);
+        blackhole += (long) levels[entityCount - 1];
+    }
+
+    private void evaluateParallel() {
+        store.evaluateParallel(slots, times, entityCount, levels);
+        blackhole += (long) levels[entityCount - 1];
+    }
+
+    private void timeBelow() {
+        for (int i = 0; i < entityCount; i++) {
+            blackhole += HungerUtils.getTimeBelow(100, 0, 0.01f, 15, times[i]);
+        }
+    }
+
+    private void bestFood() {
+        for (int i = 0; i < entityCount; i++) {
+            blackhole += foodIndex.getBest(i % 100).hashCode();
+        }
+    }
+}
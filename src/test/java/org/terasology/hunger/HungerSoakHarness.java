@@ -0,0 +1,157 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.characters.AliveCharacterComponent;
+import org.terasology.engine.logic.common.ActivateEvent;
+import org.terasology.hunger.event.ConsumeFoodEvent;
+import org.terasology.module.inventory.components.InventoryComponent;
+
+import java.util.Random;
+
+/**
+ * A headless soak run of the hunger systems on a {@link HungerTestEnvironment}. It is not run as part of the tests;
+ * run its main method with the number of characters (default 20000) and the game time to simulate in minutes (default
+ * 30), which passes as fast as the systems allow.
+ * <p>
+ * The characters get hungry at different rates and eat from their inventories at random, either by activating the
+ * food or by naming its inventory slot. Characters who run out of food starve and die, and are respawned a while
+ * later with a new stack of food. A few of them are players, whose hunger is also set through the commands from time
+ * to time. The hunger statistics are recorded throughout, including the allocated bytes where the JVM can measure
+ * them, and printed as a single JSON line at the end.
+ */
+public final class HungerSoakHarness {
+    private static final long TICK_MS = 50;
+    private static final int HEALTH = 100;
+    private static final int INVENTORY_SLOTS = 4;
+    private static final int STACK_SIZE = 8;
+    private static final float FILLING = 30;
+    private static final long RESPAWN_DELAY_MS = 10_000;
+    /**
+     * The average game time between two meals of a character.
+     */
+    private static final long MEAL_INTERVAL_MS = 120_000;
+    private static final int PLAYER_COUNT = 100;
+    /**
+     * The game time between two hunger commands of the players.
+     */
+    private static final long COMMAND_INTERVAL_MS = 1_000;
+    /**
+     * The number of characters checked for death per tick.
+     */
+    private static final int DEATH_CHECKS_PER_TICK = 500;
+
+    private final HungerTestEnvironment environment = new HungerTestEnvironment();
+    private final Random random = new Random(42);
+    private final TestEntityRef[] characters;
+    private final TestEntityRef[] clients;
+    private final long[] deathTimes;
+    private int nextDeathCheck;
+    private long respawns;
+
+    private HungerSoakHarness(int characterCount) {
+        characters = new TestEntityRef[characterCount];
+        deathTimes = new long[characterCount];
+        for (int i = 0; i < characterCount; i++) {
+            float decay = 0.02f + random.nextFloat() * 0.2f;
+            characters[i] = environment.createCharacter(random.nextFloat() * 100, decay, HEALTH, INVENTORY_SLOTS);
+            restock(characters[i]);
+            deathTimes[i] = -1;
+        }
+        clients = new TestEntityRef[Math.min(PLAYER_COUNT, characterCount)];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = environment.createClient(characters[i]);
+        }
+    }
+
+    public static void main(String[] args) {
+        int characterCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long minutes = args.length > 1 ? Long.parseLong(args[1]) : 30;
+        HungerSoakHarness harness = new HungerSoakHarness(characterCount);
+        harness.run(minutes * 60_000);
+        System.out.println(harness.environment.getCommands().hungerStats("json", null));
+    }
+
+    private void run(long gameTimeMs) {
+        HungerStatistics statistics = environment.getStatistics();
+        if (HungerTestEnvironment.isAllocationMeasurable()) {
+            statistics.setAllocationCounter(HungerTestEnvironment::getAllocatedBytes);
+        }
+        environment.getCommands().hungerStats("start", null);
+
+        double mealsPerTick = (double) characters.length * TICK_MS / MEAL_INTERVAL_MS;
+        double meals = 0;
+        long lastReport = 0;
+        for (long time = 0; time < gameTimeMs; time += TICK_MS) {
+            environment.advance(TICK_MS);
+            for (meals += mealsPerTick; meals >= 1; meals--) {
+                eat(characters[random.nextInt(characters.length)]);
+            }
+            if (time % COMMAND_INTERVAL_MS == 0 && clients.length > 0) {
+                TestEntityRef client = clients[random.nextInt(clients.length)];
+                environment.getCommands().setHunger(client, random.nextFloat() * 120 - 10);
+            }
+            checkDeaths();
+            if (time - lastReport >= 60_000) {
+                lastReport = time;
+                System.err.println((time / 60_000) + " min: " + environment.getDeaths() + " deaths, " + respawns
+                        + " respawns, " + environment.getDamageEvents() + " damage events");
+            }
+        }
+        environment.getCommands().hungerStats("stop", null);
+    }
+
+    private void eat(TestEntityRef character) {
+        if (!character.hasComponent(AliveCharacterComponent.class)) {
+            return;
+        }
+        InventoryComponent inventory = character.getComponent(InventoryComponent.class);
+        for (int slot = 0; slot < INVENTORY_SLOTS; slot++) {
+            EntityRef food = inventory.itemSlots.get(slot);
+            if (food.exists()) {
+                if (random.nextBoolean()) {
+                    food.send(new ActivateEvent(character, character, null, null, null, null, 0));
+                } else {
+                    character.send(new ConsumeFoodEvent(food, slot, 1 + random.nextInt(2)));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Respawns the characters who have been dead for long enough, checking a few of them per tick.
+     */
+    private void checkDeaths() {
+        long gameTime = environment.getTime().getGameTimeInMs();
+        for (int i = 0; i < Math.min(DEATH_CHECKS_PER_TICK, characters.length); i++) {
+            int index = nextDeathCheck;
+            nextDeathCheck = (nextDeathCheck + 1) % characters.length;
+            TestEntityRef character = characters[index];
+            if (character.hasComponent(AliveCharacterComponent.class)) {
+                continue;
+            }
+            if (deathTimes[index] < 0) {
+                deathTimes[index] = gameTime;
+            } else if (gameTime - deathTimes[index] >= RESPAWN_DELAY_MS) {
+                deathTimes[index] = -1;
+                environment.respawn(character, HEALTH);
+                restock(character);
+                respawns++;
+            }
+        }
+    }
+
+    /**
+     * Fills about half of the empty slots of a character's inventory with food.
+     */
+    private void restock(TestEntityRef character) {
+        InventoryComponent inventory = character.getComponent(InventoryComponent.class);
+        for (int slot = 0; slot < INVENTORY_SLOTS; slot++) {
+            if (!inventory.itemSlots.get(slot).exists() && random.nextBoolean()) {
+                environment.createFood(character, slot, FILLING, 1 + random.nextInt(STACK_SIZE));
+            }
+        }
+    }
+}
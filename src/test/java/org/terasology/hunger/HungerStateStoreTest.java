@@ -0,0 +1,117 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.hunger.component.HungerComponent;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.terasology.hunger.StarvationScheduleTest.entity;
+
+public class HungerStateStoreTest {
+    private HungerStateStore store;
+
+    @BeforeEach
+    public void setup() {
+        store = new HungerStateStore();
+    }
+
+    @Test
+    public void testRemoveCompactsSlots() {
+        EntityRef[] entities = new EntityRef[100];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = entity(i);
+            assertEquals(i, store.put(entities[i], hunger(i, 1)));
+            store.setDamageTime(i, i);
+        }
+
+        for (int i = 0; i < entities.length; i += 3) {
+            store.remove(entities[i]);
+        }
+        store.remove(entity(1000));
+
+        for (int i = 0; i < entities.length; i++) {
+            int slot = store.getSlot(entities[i]);
+            if (i % 3 == 0) {
+                assertEquals(-1, slot);
+            } else {
+                assertEquals(i, store.getFood(slot, 0), 1e-4);
+                assertEquals(i, store.getDamageTime(slot));
+                assertEquals(i, store.getDamageAmount(slot));
+            }
+        }
+        assertEquals(66, store.put(entity(1001), hunger(0, 1)));
+    }
+
+    @Test
+    public void testPutUpdatesExistingSlot() {
+        EntityRef entity = entity(1);
+        int slot = store.put(entity, hunger(50, 1));
+        store.setDamageTime(slot, 1000);
+
+        assertEquals(slot, store.put(entity, hunger(80, 2)));
+        assertEquals(60, store.getFood(slot, 10_000), 1e-4);
+        assertEquals(1000, store.getDamageTime(slot));
+    }
+
+    @Test
+    public void testEvaluateMatchesComponent() {
+        int count = 5000;
+        int[] slots = new int[count];
+        long[] times = new long[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = store.put(entity(i), hunger(i % 100, i % 7 * 0.1f));
+            times[i] = i * 1000L;
+        }
+        float[] serial = new float[count];
+        float[] parallel = new float[count];
+
+        store.evaluate(slots, times, count, serial);
+        store.evaluateParallel(slots, times, count, parallel);
+
+        assertArrayEquals(serial, parallel);
+        for (int i = 0; i < count; i++) {
+            assertEquals(HungerUtils.getHunger(hunger(i % 100, i % 7 * 0.1f), times[i]), serial[i]);
+        }
+    }
+
+    @Test
+    public void testRebaseKeepsLevel() {
+        HungerComponent hunger = hunger(100, 1);
+        int slot = store.put(entity(1), hunger);
+
+        store.rebase(slot, 10_000, 2);
+        assertEquals(90, store.getFood(slot, 10_000), 1e-4);
+        assertEquals(70, store.getFood(slot, 20_000), 1e-4);
+
+        store.writeTo(slot, hunger);
+        assertEquals(90, hunger.lastCalculatedFood, 1e-4);
+        assertEquals(10_000, hunger.lastCalculationTime);
+        assertEquals(2, hunger.effectiveFoodDecayPerSecond);
+
+        store.rebase(slot, 20_000, 1);
+        store.writeTo(slot, hunger);
+        assertEquals(-1, hunger.effectiveFoodDecayPerSecond);
+    }
+
+    @Test
+    public void testTimeBelowMatchesComponent() {
+        HungerComponent hunger = hunger(100, 1);
+        int slot = store.put(entity(1), hunger);
+
+        assertEquals(HungerUtils.getTimeBelow(hunger, 15, 0), store.getTimeBelow(slot, 15, 0));
+        assertEquals(90_000, store.getTimeBelow(slot, 15, 90_000));
+        assertEquals(Long.MAX_VALUE, store.getTimeBelow(slot, 0, 0));
+    }
+
+    private static HungerComponent hunger(float food, float decayPerSecond) {
+        HungerComponent hunger = new HungerComponent();
+        hunger.lastCalculatedFood = food;
+        hunger.foodDecayPerSecond = decayPerSecond;
+        hunger.healthDecreaseAmount = (int) food;
+        return hunger;
+    }
+}
@@ -0,0 +1,369 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import com.sun.management.ThreadMXBean;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.implementation.StubMethod;
+import net.bytebuddy.matcher.ElementMatchers;
+import org.terasology.engine.context.Context;
+import org.terasology.engine.context.internal.ContextImpl;
+import org.terasology.engine.core.Time;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.engine.logic.characters.AliveCharacterComponent;
+import org.terasology.engine.logic.common.ActivateEvent;
+import org.terasology.engine.logic.inventory.ItemComponent;
+import org.terasology.engine.network.ClientComponent;
+import org.terasology.engine.registry.CoreRegistry;
+import org.terasology.engine.registry.In;
+import org.terasology.engine.utilities.modifiable.ModifiableValue;
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.gestalt.entitysystem.event.Event;
+import org.terasology.hunger.component.FoodComponent;
+import org.terasology.hunger.component.HungerComponent;
+import org.terasology.hunger.component.NutrientsComponent;
+import org.terasology.hunger.event.ChangeNutrientEvent;
+import org.terasology.hunger.event.ConsumeFoodEvent;
+import org.terasology.hunger.event.FoodConsumedEvent;
+import org.terasology.hunger.event.HungerDecayChangedEvent;
+import org.terasology.module.health.events.DoDamageEvent;
+import org.terasology.module.inventory.components.InventoryComponent;
+import org.terasology.module.inventory.systems.InventoryManager;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs the hunger authority and the systems it works with without an engine, for tests, benchmarks and soak runs.
+ * <p>
+ * The systems are created directly and their {@link In} fields are injected by type, from the other systems and the
+ * environment's clock and inventory manager. Engine interfaces nothing is provided for are stubbed, with every method
+ * returning null, zero or false. The game time only advances through {@link #advance(long)}, which runs a tick of the
+ * authority like the engine would.
+ * <p>
+ * Entities are {@link TestEntityRef}s. For the events sent to them and their component changes, the environment calls
+ * the handlers of the authority the event system would call. Damage events reduce the entity's health, and an entity
+ * whose health drops to 0 dies, i.e. loses its {@link AliveCharacterComponent}, until it is respawned.
+ */
+final class HungerTestEnvironment {
+    private static final Map<Class<?>, Class<?>> STUB_TYPES = new HashMap<>();
+
+    private final Map<Class<?>, Object> shared = new HashMap<>();
+    private final Clock time = stub(Clock.class);
+    private final HungerStatistics statistics = new HungerStatistics();
+    private final HungryEntityIndex hungryEntityIndex = new HungryEntityIndex();
+    private final HungerService hungerService = new HungerService();
+    private final HungerDecayModifierRegistry decayModifierRegistry = new HungerDecayModifierRegistry();
+    private final HungerAuthoritySystem authority = new HungerAuthoritySystem();
+    private final HungerCommands commands = new HungerCommands();
+
+    private long nextId = 1;
+    private long damageEvents;
+    private long deaths;
+
+    HungerTestEnvironment() {
+        shared.put(Time.class, time);
+        shared.put(InventoryManager.class, stub(Inventories.class));
+        shared.put(HungerStatistics.class, statistics);
+        shared.put(HungryEntityIndex.class, hungryEntityIndex);
+        shared.put(HungerService.class, hungerService);
+        shared.put(HungerDecayModifierRegistry.class, decayModifierRegistry);
+        shared.put(HungerAuthoritySystem.class, authority);
+        inject(statistics);
+        inject(hungerService);
+        inject(decayModifierRegistry);
+        inject(authority);
+        inject(commands);
+        // Without modifiers, the food decay is taken from the hunger components as is.
+        decayModifierRegistry.sendAffectHungerEvent = false;
+
+        // For HungerUtils.getHungerForEntity.
+        Context context = new ContextImpl();
+        context.put(Time.class, time);
+        CoreRegistry.setContext(context);
+    }
+
+    HungerAuthoritySystem getAuthority() {
+        return authority;
+    }
+
+    HungerCommands getCommands() {
+        return commands;
+    }
+
+    HungerStatistics getStatistics() {
+        return statistics;
+    }
+
+    Clock getTime() {
+        return time;
+    }
+
+    /**
+     * @return The number of damage events sent to entities of the environment.
+     */
+    long getDamageEvents() {
+        return damageEvents;
+    }
+
+    /**
+     * @return The number of entities which died.
+     */
+    long getDeaths() {
+        return deaths;
+    }
+
+    /**
+     * Advances the game time and runs a tick of the authority.
+     */
+    void advance(long ms) {
+        time.gameTime += ms;
+        authority.update(ms / 1000f);
+    }
+
+    /**
+     * Injects the {@link In} fields of a system from the environment.
+     *
+     * @return The system.
+     */
+    <T> T inject(T system) {
+        for (Class<?> type = system.getClass(); type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(In.class)) {
+                    Object value = shared.computeIfAbsent(field.getType(),
+                            fieldType -> fieldType.isInterface() ? stub(fieldType) : null);
+                    setField(system, field.getName(), value);
+                }
+            }
+        }
+        return system;
+    }
+
+    TestEntityRef createEntity() {
+        TestEntityRef entity = stub(TestEntityRef.class);
+        entity.init(this, nextId++);
+        return entity;
+    }
+
+    /**
+     * Creates a living character with an inventory, which becomes subject to hunger right away.
+     */
+    TestEntityRef createCharacter(float food, float foodDecayPerSecond, int health, int inventorySlots) {
+        TestEntityRef character = createEntity();
+        character.health = health;
+        character.addComponent(new InventoryComponent(inventorySlots));
+        HungerComponent hunger = new HungerComponent();
+        hunger.lastCalculatedFood = food;
+        hunger.lastCalculationTime = time.gameTime;
+        hunger.foodDecayPerSecond = foodDecayPerSecond;
+        character.addComponent(hunger);
+        character.addComponent(new AliveCharacterComponent());
+        return character;
+    }
+
+    /**
+     * Creates a client entity controlling the given character, as the sender of commands.
+     */
+    TestEntityRef createClient(EntityRef character) {
+        TestEntityRef client = createEntity();
+        ClientComponent clientComponent = new ClientComponent();
+        clientComponent.character = character;
+        client.addComponent(clientComponent);
+        return client;
+    }
+
+    /**
+     * Puts a stack of food which is used up when eaten into a slot of a character's inventory.
+     */
+    TestEntityRef createFood(TestEntityRef owner, int slot, float filling, int count) {
+        TestEntityRef item = createEntity();
+        ItemComponent itemComp = new ItemComponent();
+        itemComp.consumedOnUse = true;
+        itemComp.stackCount = (byte) count;
+        item.addComponent(itemComp);
+        FoodComponent food = new FoodComponent();
+        food.filling = new ModifiableValue(filling);
+        item.addComponent(food);
+        owner.getComponent(InventoryComponent.class).itemSlots.set(slot, item);
+        item.slot = slot;
+        item.setOwner(owner);
+        return item;
+    }
+
+    /**
+     * Brings a dead character back to life with full health, as respawning a player does.
+     */
+    void respawn(TestEntityRef character, int health) {
+        character.health = health;
+        character.addComponent(new AliveCharacterComponent());
+        authority.onPlayerRespawn(null, character, character.getComponent(HungerComponent.class));
+    }
+
+    void onAdded(TestEntityRef entity, Component component) {
+        if (component instanceof HungerComponent || component instanceof AliveCharacterComponent) {
+            if (isAlive(entity)) {
+                authority.onHungerActivated(null, entity, entity.getComponent(HungerComponent.class));
+            }
+        } else if (component instanceof NutrientsComponent) {
+            if (isAlive(entity)) {
+                authority.onNutrientsActivated(null, entity, entity.getComponent(HungerComponent.class));
+            }
+        } else if (component instanceof ClientComponent) {
+            authority.onClientActivated(null, entity);
+        }
+    }
+
+    void beforeRemoved(TestEntityRef entity, Component component) {
+        if ((component instanceof HungerComponent || component instanceof AliveCharacterComponent)
+                && isAlive(entity)) {
+            authority.onHungerDeactivated(null, entity);
+        } else if (component instanceof ClientComponent) {
+            authority.onClientDeactivated(null, entity);
+        }
+    }
+
+    void onSaved(TestEntityRef entity, Component component) {
+        if (component instanceof HungerComponent && isAlive(entity)) {
+            authority.onHungerChanged(null, entity, (HungerComponent) component);
+        } else if (component instanceof NutrientsComponent && isAlive(entity)) {
+            authority.onNutrientsChanged(null, entity, entity.getComponent(HungerComponent.class));
+        }
+    }
+
+    void dispatch(TestEntityRef entity, Event event) {
+        if (event instanceof DoDamageEvent) {
+            damageEvents++;
+            entity.health -= ((DoDamageEvent) event).getAmount();
+            if (entity.health <= 0 && entity.hasComponent(AliveCharacterComponent.class)) {
+                deaths++;
+                entity.removeComponent(AliveCharacterComponent.class);
+            }
+        } else if (event instanceof ActivateEvent) {
+            FoodComponent food = entity.getComponent(FoodComponent.class);
+            if (food != null) {
+                authority.foodConsumed((ActivateEvent) event, entity, food);
+            }
+        } else if (event instanceof FoodConsumedEvent) {
+            ItemComponent itemComp = entity.getComponent(ItemComponent.class);
+            if (itemComp != null) {
+                authority.usedItem((FoodConsumedEvent) event, entity, itemComp);
+            }
+        } else if (event instanceof ConsumeFoodEvent) {
+            HungerComponent hunger = entity.getComponent(HungerComponent.class);
+            if (hunger != null) {
+                authority.onConsumeFood((ConsumeFoodEvent) event, entity, hunger);
+            }
+        } else if (event instanceof ChangeNutrientEvent) {
+            NutrientsComponent nutrients = entity.getComponent(NutrientsComponent.class);
+            if (nutrients != null) {
+                authority.onChangeNutrient((ChangeNutrientEvent) event, entity, nutrients);
+            }
+        } else if (event instanceof HungerDecayChangedEvent && isAlive(entity)) {
+            authority.onHungerDecayChanged((HungerDecayChangedEvent) event, entity,
+                    entity.getComponent(HungerComponent.class));
+        }
+    }
+
+    private static boolean isAlive(TestEntityRef entity) {
+        return entity.hasComponent(HungerComponent.class) && entity.hasComponent(AliveCharacterComponent.class);
+    }
+
+    /**
+     * Creates an instance of an interface or abstract class whose abstract methods return null, zero or false.
+     */
+    static <T> T stub(Class<T> type) {
+        try {
+            return type.cast(STUB_TYPES.computeIfAbsent(type, HungerTestEnvironment::createStubType)
+                    .getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot stub " + type, e);
+        }
+    }
+
+    private static Class<?> createStubType(Class<?> type) {
+        return new ByteBuddy()
+                .subclass(type)
+                .method(ElementMatchers.isAbstract())
+                .intercept(StubMethod.INSTANCE)
+                .make()
+                .load(type.getClassLoader())
+                .getLoaded();
+    }
+
+    static void setField(Object target, String name, Object value) {
+        for (Class<?> type = target.getClass(); type != Object.class; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // Declared by a super class.
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot set " + name + " of " + target, e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + name + " in " + target.getClass());
+    }
+
+    /**
+     * @return Whether the bytes allocated by a thread can be measured on this JVM.
+     */
+    static boolean isAllocationMeasurable() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean)) {
+            return false;
+        }
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return false;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return true;
+    }
+
+    /**
+     * @return The total number of bytes allocated by the current thread so far, if
+     *         {@link #isAllocationMeasurable()}.
+     */
+    static long getAllocatedBytes() {
+        return ((ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * A game clock which only advances when told to. The real time is taken from the system.
+     */
+    public abstract static class Clock implements Time {
+        private long gameTime;
+
+        public long getGameTimeInMs() {
+            return gameTime;
+        }
+
+        public long getRealTimeInMs() {
+            return System.nanoTime() / 1_000_000;
+        }
+    }
+
+    /**
+     * Removes items from an inventory the way the inventory module does for the slot the item is held in, but without
+     * sending inventory events. Removed items are always destroyed.
+     */
+    public abstract static class Inventories implements InventoryManager {
+        public EntityRef removeItem(EntityRef inventory, EntityRef instigator, EntityRef item, boolean destroyRemoved,
+                                    int count) {
+            ItemComponent itemComp = item.getComponent(ItemComponent.class);
+            if (itemComp.stackCount > count) {
+                itemComp.stackCount -= count;
+                item.saveComponent(itemComp);
+            } else {
+                inventory.getComponent(InventoryComponent.class).itemSlots.set(((TestEntityRef) item).slot,
+                        EntityRef.NULL);
+                item.destroy();
+            }
+            return null;
+        }
+    }
+}
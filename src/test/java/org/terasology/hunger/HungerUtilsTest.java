@@ -0,0 +1,72 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.junit.jupiter.api.Test;
+import org.terasology.hunger.component.HungerComponent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HungerUtilsTest {
+    @Test
+    public void testTimeBelowCrossesThreshold() {
+        long time = HungerUtils.getTimeBelow(100, 0, 1, 50, 10_000);
+
+        assertEquals(50_001, time);
+        assertTrue(HungerUtils.getLevel(100, 0, 1, time) < 50);
+        assertTrue(HungerUtils.getLevel(100, 0, 1, time - 1) >= 50);
+    }
+
+    @Test
+    public void testTimeBelowWhenAlreadyBelow() {
+        assertEquals(60_000, HungerUtils.getTimeBelow(100, 0, 1, 50, 60_000));
+    }
+
+    @Test
+    public void testTimeBelowZeroThresholdIsNever() {
+        assertEquals(Long.MAX_VALUE, HungerUtils.getTimeBelow(100, 0, 1, 0, 10_000));
+        assertEquals(Long.MAX_VALUE, HungerUtils.getTimeBelow(100, 0, 1, 0, 1_000_000));
+    }
+
+    @Test
+    public void testTimeBelowWithoutDecayIsNever() {
+        assertEquals(Long.MAX_VALUE, HungerUtils.getTimeBelow(100, 0, 0, 50, 10_000));
+    }
+
+    @Test
+    public void testTimeBelowDoesNotOverflow() {
+        assertEquals(Long.MAX_VALUE, HungerUtils.getTimeBelow(100, 0, 1e-30f, 50, 10_000));
+    }
+
+    @Test
+    public void testLevelNeverNegative() {
+        assertEquals(0, HungerUtils.getLevel(10, 0, 1, 100_000));
+    }
+
+    @Test
+    public void testEffectiveDecay() {
+        HungerComponent hunger = new HungerComponent();
+        hunger.lastCalculatedFood = 100;
+        hunger.foodDecayPerSecond = 1;
+
+        assertEquals(90, HungerUtils.getHunger(hunger, 10_000), 1e-4);
+        hunger.effectiveFoodDecayPerSecond = 2;
+        assertEquals(80, HungerUtils.getHunger(hunger, 10_000), 1e-4);
+        assertEquals(10_001, HungerUtils.getTimeBelow(hunger, 80, 0));
+    }
+
+    @Test
+    public void testSetHungerSkipsSmallChanges() {
+        HungerComponent hunger = new HungerComponent();
+        hunger.lastCalculatedFood = 100;
+        hunger.foodDecayPerSecond = 0;
+
+        assertFalse(HungerUtils.setHunger(hunger, 100.0005f, 1000, HungerUtils.DEFAULT_FOOD_EPSILON));
+        assertEquals(0, hunger.lastCalculationTime);
+        assertTrue(HungerUtils.setHunger(hunger, 90, 1000, HungerUtils.DEFAULT_FOOD_EPSILON));
+        assertEquals(90, hunger.lastCalculatedFood);
+        assertEquals(1000, hunger.lastCalculationTime);
+    }
+}
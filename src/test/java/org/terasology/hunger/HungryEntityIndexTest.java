@@ -0,0 +1,71 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.terasology.hunger.StarvationScheduleTest.entity;
+
+public class HungryEntityIndexTest {
+    private HungryEntityIndex index;
+    private EntityRef starving;
+    private EntityRef sated;
+    private EntityRef hungry;
+
+    @BeforeEach
+    public void setup() {
+        index = new HungryEntityIndex();
+        starving = entity(1);
+        sated = entity(2);
+        hungry = entity(3);
+    }
+
+    @Test
+    public void testEntitiesWhichNeverStarveStayIndexed() {
+        index.update(sated, Long.MAX_VALUE, 80);
+        index.update(starving, 1000, 0);
+        index.update(hungry, Long.MAX_VALUE, 20);
+
+        assertTrue(index.contains(sated));
+        assertEquals(Arrays.asList(starving, hungry, sated), getHungriest(3));
+        assertEquals(Arrays.asList(starving, hungry), getHungriest(2));
+    }
+
+    @Test
+    public void testEntitiesWhichNeverStarveAreReorderedByFood() {
+        index.update(sated, Long.MAX_VALUE, 80);
+        index.update(hungry, Long.MAX_VALUE, 20);
+        index.update(sated, Long.MAX_VALUE, 10);
+
+        assertEquals(Arrays.asList(sated, hungry), getHungriest(2));
+    }
+
+    @Test
+    public void testOnlyStarvingEntitiesAreStarving() {
+        index.update(sated, Long.MAX_VALUE, 80);
+        index.update(starving, 1000, 0);
+
+        List<EntityRef> out = new ArrayList<>();
+        index.getStarvingAt(Long.MAX_VALUE, out);
+        assertEquals(Arrays.asList(starving), out);
+
+        index.remove(sated);
+        assertFalse(index.contains(sated));
+        assertEquals(Long.MAX_VALUE, index.getStarvationTime(sated));
+    }
+
+    private List<EntityRef> getHungriest(int count) {
+        List<EntityRef> out = new ArrayList<>();
+        index.getHungriest(count, out);
+        return out;
+    }
+}
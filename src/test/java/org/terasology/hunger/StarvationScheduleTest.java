@@ -0,0 +1,119 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.terasology.engine.entitySystem.entity.EntityRef;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StarvationScheduleTest {
+    private StarvationSchedule schedule;
+
+    @BeforeEach
+    public void setup() {
+        schedule = new StarvationSchedule();
+    }
+
+    @Test
+    public void testPollsInTimeOrder() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            schedule.schedule(entity(i), random.nextInt(100_000));
+        }
+
+        long previousTime = Long.MIN_VALUE;
+        int count = 0;
+        for (EntityRef entity = schedule.pollDue(100_000); entity != null; entity = schedule.pollDue(100_000)) {
+            assertTrue(schedule.getDueTime() >= previousTime);
+            previousTime = schedule.getDueTime();
+            count++;
+        }
+        assertEquals(500, count);
+        assertEquals(0, schedule.size());
+    }
+
+    @Test
+    public void testOnlyPollsDueEntities() {
+        EntityRef early = entity(1);
+        EntityRef late = entity(2);
+        schedule.schedule(late, 2000);
+        schedule.schedule(early, 1000);
+
+        assertEquals(1000, schedule.getNextTime());
+        assertNull(schedule.pollDue(999));
+        assertSame(early, schedule.pollDue(1500));
+        assertEquals(1000, schedule.getDueTime());
+        assertNull(schedule.pollDue(1500));
+        assertEquals(2000, schedule.getNextTime());
+    }
+
+    @Test
+    public void testRescheduleMovesEntity() {
+        EntityRef first = entity(1);
+        EntityRef second = entity(2);
+        EntityRef third = entity(3);
+        schedule.schedule(first, 1000);
+        schedule.schedule(second, 2000);
+        schedule.schedule(third, 3000);
+
+        schedule.schedule(third, 500);
+        schedule.schedule(first, 4000);
+
+        assertEquals(3, schedule.size());
+        assertEquals(4000, schedule.getScheduledTime(first));
+        assertSame(third, schedule.pollDue(5000));
+        assertSame(second, schedule.pollDue(5000));
+        assertSame(first, schedule.pollDue(5000));
+        assertNull(schedule.pollDue(5000));
+    }
+
+    @Test
+    public void testRemove() {
+        EntityRef[] entities = new EntityRef[10];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = entity(i);
+            schedule.schedule(entities[i], 1000L * (10 - i));
+        }
+
+        schedule.remove(entities[9]);
+        schedule.remove(entities[4]);
+        schedule.remove(entity(100));
+
+        assertEquals(8, schedule.size());
+        assertEquals(StarvationSchedule.NEVER, schedule.getScheduledTime(entities[4]));
+        assertEquals(2000, schedule.getNextTime());
+        for (int i = 8; i >= 0; i--) {
+            if (i != 4) {
+                assertSame(entities[i], schedule.pollDue(Long.MAX_VALUE - 1));
+            }
+        }
+        assertEquals(0, schedule.size());
+    }
+
+    @Test
+    public void testScheduleNeverRemoves() {
+        EntityRef entity = entity(1);
+        schedule.schedule(entity, 1000);
+
+        schedule.schedule(entity, StarvationSchedule.NEVER);
+
+        assertEquals(0, schedule.size());
+        assertEquals(StarvationSchedule.NEVER, schedule.getScheduledTime(entity));
+        assertEquals(StarvationSchedule.NEVER, schedule.getNextTime());
+    }
+
+    static EntityRef entity(long id) {
+        EntityRef entity = mock(EntityRef.class);
+        when(entity.getId()).thenReturn(id);
+        return entity;
+    }
+}
@@ -0,0 +1,101 @@
+// Copyright 2021 The Terasology Foundation
+// SPDX-License-Identifier: Apache-2.0
+package org.terasology.hunger;
+
+import org.terasology.engine.entitySystem.entity.EntityRef;
+import org.terasology.gestalt.entitysystem.component.Component;
+import org.terasology.gestalt.entitysystem.event.Event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An entity of a {@link HungerTestEnvironment}. Its components are kept in a map, and the environment is told about
+ * every event sent to it and every component added, saved or removed, so it can call the handlers the event system
+ * would call. Unlike a mocked entity, it does not allocate when its components are read or events are sent to it.
+ * <p>
+ * It only implements what the hunger systems use; the environment creates it with all other methods stubbed.
+ */
+public abstract class TestEntityRef extends EntityRef {
+    /**
+     * The health of the entity, reduced by the damage events sent to it.
+     */
+    int health;
+    /**
+     * The inventory slot the entity is held in, if it is an item.
+     */
+    int slot = -1;
+
+    private final Map<Class<?>, Component> components = new HashMap<>();
+    private HungerTestEnvironment environment;
+    private long id;
+    private boolean exists;
+    private EntityRef owner = EntityRef.NULL;
+
+    void init(HungerTestEnvironment testEnvironment, long entityId) {
+        environment = testEnvironment;
+        id = entityId;
+        exists = true;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean exists() {
+        return exists;
+    }
+
+    public boolean isActive() {
+        return exists;
+    }
+
+    public void destroy() {
+        exists = false;
+        components.clear();
+    }
+
+    public EntityRef getOwner() {
+        return owner;
+    }
+
+    public void setOwner(EntityRef owner) {
+        this.owner = owner;
+    }
+
+    public <T extends Component> T getComponent(Class<T> componentClass) {
+        return componentClass.cast(components.get(componentClass));
+    }
+
+    public boolean hasComponent(Class<? extends Component> componentClass) {
+        return components.containsKey(componentClass);
+    }
+
+    public <T extends Component> T addComponent(T component) {
+        components.put(component.getClass(), component);
+        environment.onAdded(this, component);
+        return component;
+    }
+
+    public void removeComponent(Class<? extends Component> componentClass) {
+        Component component = components.get(componentClass);
+        if (component != null) {
+            environment.beforeRemoved(this, component);
+            components.remove(componentClass);
+        }
+    }
+
+    public void saveComponent(Component component) {
+        environment.onSaved(this, component);
+    }
+
+    public <T extends Event> T send(T event) {
+        environment.dispatch(this, event);
+        return event;
+    }
+
+    @Override
+    public String toString() {
+        return "TestEntityRef{" + id + "}";
+    }
+}